@@ -0,0 +1,61 @@
+package com.mymicroservice.authservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.cache.TokenValidationCache;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.security.JwtAlgorithm;
+import com.mymicroservice.authservice.security.JwtKeyRing;
+import com.mymicroservice.authservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the services under benchmark outside the Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String USER_EMAIL = "benchmark@test.by";
+    static final Duration ACCESS_EXPIRATION = Duration.ofMinutes(15);
+    static final Duration REFRESH_EXPIRATION = Duration.ofDays(1);
+    static final long VALIDATION_CACHE_SIZE = 10_000;
+
+    /** Test key pairs ({@code src/test/resources/keys}) per algorithm: private key, public key. */
+    private static final Map<JwtAlgorithm, List<String>> KEY_LOCATIONS = Map.of(
+            JwtAlgorithm.RS256, List.of("keys/private.pem", "keys/public.pem"),
+            JwtAlgorithm.ES256, List.of("keys/es256-private.pem", "keys/es256-public.pem"),
+            JwtAlgorithm.EdDSA, List.of("keys/ed25519-private.pem", "keys/ed25519-public.pem"));
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param algorithm {@link JwtAlgorithm} name; RS256, ES256 or EdDSA
+     * @param validationCacheEnabled whether verified tokens are served from the cache
+     */
+    static JwtService jwtService(String algorithm, boolean validationCacheEnabled) {
+        TokenValidationCache cache = new TokenValidationCache(
+                new SimpleMeterRegistry(), validationCacheEnabled, VALIDATION_CACHE_SIZE);
+        JwtAlgorithm jwtAlgorithm = JwtAlgorithm.valueOf(algorithm);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtAlgorithm, KEY_LOCATIONS.get(jwtAlgorithm).get(0),
+                KEY_LOCATIONS.get(jwtAlgorithm).get(1), List.of(), REFRESH_EXPIRATION, new ObjectMapper());
+        keyRing.init();
+        AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        JwtService jwtService = new JwtService(null, cache, keyRing, authMetrics);
+        jwtService.init();
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", ACCESS_EXPIRATION);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", REFRESH_EXPIRATION);
+        return jwtService;
+    }
+
+    static List<String> roles(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> "ROLE_" + i)
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mymicroservice.authservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.filter.GatewayAuthFilter;
+import com.mymicroservice.authservice.util.CommonConstants;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding the JWT payload of a gateway-forwarded request in {@link GatewayAuthFilter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    @Param({"1", "5", "20"})
+    public int roleCount;
+
+    private GatewayAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String token = BenchmarkFixtures.jwtService(algorithm, false)
+                .generateAccessToken(BenchmarkFixtures.USER_EMAIL, BenchmarkFixtures.roles(roleCount));
+
+        filter = new GatewayAuthFilter(new ObjectMapper());
+        request = new MockHttpServletRequest();
+        request.addHeader(CommonConstants.INTERNAL_CALL_HEADER, "true");
+        request.addHeader(CommonConstants.SOURCE_SERVICE_HEADER, CommonConstants.GATEWAY_SERVICE_NAME);
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication decodePayload() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mymicroservice.authservice.benchmark;
+
+import com.mymicroservice.authservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-token cost of issuing and verifying tokens in {@link JwtService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    @Param({"1", "5", "20"})
+    public int roleCount;
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private List<String> roles;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(algorithm, false);
+        cachingJwtService = BenchmarkFixtures.jwtService(algorithm, true);
+        roles = BenchmarkFixtures.roles(roleCount);
+        accessToken = jwtService.generateAccessToken(BenchmarkFixtures.USER_EMAIL, roles);
+        cachingJwtService.isTokenValid(accessToken);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(BenchmarkFixtures.USER_EMAIL, roles);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(BenchmarkFixtures.USER_EMAIL, roles);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.extractAllClaims(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachingJwtService.isTokenValid(accessToken);
+    }
+}
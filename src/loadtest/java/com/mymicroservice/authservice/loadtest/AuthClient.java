@@ -0,0 +1,97 @@
+package com.mymicroservice.authservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mymicroservice.authservice.dto.AuthRequest;
+import com.mymicroservice.authservice.dto.AuthResponse;
+import com.mymicroservice.authservice.dto.RefreshTokenRequest;
+import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.util.CommonConstants;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * HTTP calls of the load test. {@code /auth/validate} is sent the way API Gateway sends it:
+ * internal-call headers plus the access token as Bearer.
+ */
+public class AuthClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private final String baseUrl;
+
+    public AuthClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public Result register(UserRegistrationRequest request) throws IOException, InterruptedException {
+        return post("/auth/register", request);
+    }
+
+    public Result login(String email, String password) throws IOException, InterruptedException {
+        AuthRequest request = new AuthRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return post("/auth/login", request);
+    }
+
+    public Result refresh(String refreshToken) throws IOException, InterruptedException {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return post("/auth/refresh", request);
+    }
+
+    /**
+     * @return status 200 with a {@code null} body when the service answered {@code true}
+     */
+    public Result validate(String accessToken) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/validate?token="
+                        + URLEncoder.encode(accessToken, StandardCharsets.UTF_8)))
+                .timeout(REQUEST_TIMEOUT)
+                .header(CommonConstants.INTERNAL_CALL_HEADER, "true")
+                .header(CommonConstants.SOURCE_SERVICE_HEADER, CommonConstants.GATEWAY_SERVICE_NAME)
+                .header("Authorization", "Bearer " + accessToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        int status = response.statusCode() == 200 && !Boolean.parseBoolean(response.body()) ? 401 : response.statusCode();
+        return new Result(status, null);
+    }
+
+    private Result post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        AuthResponse tokens = response.statusCode() == 200
+                ? objectMapper.readValue(response.body(), AuthResponse.class)
+                : null;
+        return new Result(response.statusCode(), tokens);
+    }
+
+    /**
+     * @param tokens issued tokens for a successful register, login or refresh
+     */
+    public record Result(int status, AuthResponse tokens) {
+
+        public boolean ok() {
+            return status == 200;
+        }
+    }
+}
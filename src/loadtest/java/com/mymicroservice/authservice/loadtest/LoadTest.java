@@ -0,0 +1,316 @@
+package com.mymicroservice.authservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mymicroservice.authservice.AuthserviceApplication;
+import com.mymicroservice.authservice.dto.AuthResponse;
+import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Drives a mix of register/login/refresh/validate requests against the service started in this JVM
+ * on a Testcontainers Postgres with the Liquibase schema.
+ *
+ * <p>The load is open-loop: requests start at a fixed rate whether or not earlier ones have finished,
+ * and latency is measured from the intended start, so a slower service shows up as higher latency
+ * instead of fewer requests. Service properties can be overridden with {@code -D}, e.g.
+ * {@code -Dspring.threads.virtual.enabled=true}; the login rate limiter is off by default.
+ *
+ * <p>Exit code 1 when a {@code --baseline} report is given and an operation regressed.
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final Map<String, String> SERVICE_DEFAULTS = Map.of(
+            "server.port", "0",
+            "security.login-rate-limit.enabled", "false",
+            "jwt.refresh-token.purge.enabled", "false",
+            "logging.level.root", "WARN",
+            "logging.level.com.mymicroservice", "WARN");
+
+    private final LoadTestOptions options;
+    private final AuthClient client;
+    private final SessionPool sessions;
+    private final AtomicLong registrations = new AtomicLong();
+
+    public LoadTest(LoadTestOptions options, AuthClient client) {
+        this.options = options;
+        this.client = client;
+        this.sessions = new SessionPool(options.users());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int exitCode;
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(TestConstants.POSTGRES_IMAGE)
+                .withDatabaseName(TestConstants.TEST_DB_NAME)
+                .withUsername(TestConstants.TEST_DB_USER)
+                .withPassword(TestConstants.TEST_DB_PASSWORD)) {
+            postgres.start();
+            try (ConfigurableApplicationContext service = startService(postgres)) {
+                int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+                LoadTest loadTest = new LoadTest(options, new AuthClient("http://localhost:" + port));
+                exitCode = loadTest.finish(loadTest.run(service.getEnvironment()));
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startService(PostgreSQLContainer<?> postgres) {
+        SERVICE_DEFAULTS.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, value);
+            }
+        });
+        System.setProperty("spring.datasource.url", postgres.getJdbcUrl());
+        System.setProperty("spring.datasource.username", postgres.getUsername());
+        System.setProperty("spring.datasource.password", postgres.getPassword());
+        return new SpringApplicationBuilder(AuthserviceApplication.class).run();
+    }
+
+    LoadTestReport run(Environment environment) throws InterruptedException {
+        System.out.printf("Registering %d users%n", options.users());
+        seed();
+
+        System.out.printf("Warm-up %ds at %d req/s, mix %s%n", options.warmup().toSeconds(), options.rate(), options.mix());
+        drive(options.warmup(), newStats());
+
+        System.out.printf("Measuring %ds%n", options.duration().toSeconds());
+        Map<Operation, OperationStats> stats = newStats();
+        long start = System.nanoTime();
+        drive(options.duration(), stats);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, LoadTestReport.OperationResult> results = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> results.put(operation.key(), operationStats.result(seconds)));
+
+        return new LoadTestReport(
+                commit(),
+                Instant.now(),
+                new LoadTestReport.Environment(
+                        System.getProperty("java.version"),
+                        Runtime.getRuntime().availableProcessors(),
+                        environment.getProperty("spring.threads.virtual.enabled"),
+                        environment.getProperty("security.password.bcrypt.strength")),
+                new LoadTestReport.Settings(
+                        options.mix().toString(),
+                        options.rate(),
+                        options.warmup().toSeconds(),
+                        options.duration().toSeconds(),
+                        options.maxInFlight(),
+                        options.users()),
+                results);
+    }
+
+    /**
+     * Registers the users with a bounded number of concurrent requests; registration returns the first session.
+     */
+    private void seed() throws InterruptedException {
+        Semaphore parallelism = new Semaphore(Runtime.getRuntime().availableProcessors() * 2);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < options.users(); user++) {
+                parallelism.acquire();
+                int seeded = user;
+                executor.execute(() -> {
+                    try {
+                        AuthClient.Result result = client.register(registration(email(seeded)));
+                        if (!result.ok()) {
+                            throw new IllegalStateException("Registration of user " + seeded + " failed: " + result.status());
+                        }
+                        sessions.put(seeded, result.tokens());
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Registration of user " + seeded + " failed", e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        parallelism.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void drive(Duration duration, Map<Operation, OperationStats> stats) {
+        RandomGenerator random = new SplittableRandom();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long requests = duration.toNanos() * options.rate() / 1_000_000_000L;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * 1_000_000_000L / options.rate();
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = options.mix().next(random);
+                OperationStats operationStats = stats.get(operation);
+                if (!inFlight.tryAcquire()) {
+                    operationStats.skipped(LoadTestReport.OVERLOADED);
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        execute(operation, intendedStart, operationStats);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(Operation operation, long intendedStart, OperationStats stats) {
+        RandomGenerator random = ThreadLocalRandom.current();
+        try {
+            switch (operation) {
+                case REGISTER -> {
+                    String email = "load.new" + registrations.incrementAndGet() + "@example.com";
+                    stats.record(client.register(registration(email)).status(), System.nanoTime() - intendedStart);
+                }
+                case LOGIN -> {
+                    int user = random.nextInt(sessions.size());
+                    AuthClient.Result result = client.login(email(user), PASSWORD);
+                    stats.record(result.status(), System.nanoTime() - intendedStart);
+                    if (result.ok()) {
+                        sessions.put(user, result.tokens());
+                    }
+                }
+                case REFRESH -> {
+                    SessionPool.Session session = sessions.take(random);
+                    if (session == null) {
+                        stats.skipped(LoadTestReport.NO_SESSION);
+                        return;
+                    }
+                    AuthClient.Result result = client.refresh(session.tokens().getRefreshToken());
+                    stats.record(result.status(), System.nanoTime() - intendedStart);
+                    if (result.ok()) {
+                        sessions.put(session.user(), result.tokens());
+                    }
+                }
+                case VALIDATE -> {
+                    AuthResponse tokens = sessions.peek(random);
+                    if (tokens == null) {
+                        stats.skipped(LoadTestReport.NO_SESSION);
+                        return;
+                    }
+                    stats.record(client.validate(tokens.getAccessToken()).status(), System.nanoTime() - intendedStart);
+                }
+            }
+        } catch (IOException e) {
+            stats.failed(System.nanoTime() - intendedStart);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prints the report, writes it to {@code --output} and compares it with {@code --baseline}.
+     *
+     * @return process exit code
+     */
+    int finish(LoadTestReport report) throws IOException {
+        System.out.printf("%n%-10s %9s %7s %7s %9s %8s %8s %8s %8s %8s%n",
+                "operation", "requests", "errors", "overld", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        report.operations().forEach((operation, result) -> System.out.printf(
+                "%-10s %9d %7d %7d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f   %s%n",
+                operation, result.requests(), result.errors(), result.overloaded(), result.throughput(),
+                result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs(), result.statuses()));
+
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+        if (options.output().getParent() != null) {
+            Files.createDirectories(options.output().getParent());
+        }
+        objectMapper.writeValue(options.output().toFile(), report);
+        System.out.printf("%nReport: %s%n", options.output().toAbsolutePath());
+
+        if (options.baseline() == null) {
+            return 0;
+        }
+        LoadTestReport baseline = objectMapper.readValue(options.baseline().toFile(), LoadTestReport.class);
+        if (!baseline.settings().equals(report.settings())) {
+            System.out.printf("Baseline %s was run with other settings (%s), not comparing%n",
+                    baseline.commit(), baseline.settings());
+            return 0;
+        }
+        List<String> regressions = report.regressionsAgainst(baseline, options.maxRegression());
+        if (regressions.isEmpty()) {
+            System.out.printf("No regression against %s (p99 threshold +%.0f%%)%n", baseline.commit(), options.maxRegression());
+            return 0;
+        }
+        System.out.printf("Regressions against %s:%n", baseline.commit());
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return 1;
+    }
+
+    private Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        options.mix().weights().forEach((operation, weight) -> {
+            if (weight > 0) {
+                stats.put(operation, new OperationStats());
+            }
+        });
+        return stats;
+    }
+
+    private static String email(int user) {
+        return "load" + user + "@example.com";
+    }
+
+    private static UserRegistrationRequest registration(String email) {
+        return UserRegistrationRequest.builder()
+                .name("Load")
+                .surname("Test")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .email(email)
+                .password(PASSWORD)
+                .build();
+    }
+
+    private static String commit() {
+        String commit = System.getProperty("loadtest.commit");
+        if (commit != null) {
+            return commit;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(git.getInputStream().readAllBytes()).trim();
+            return git.waitFor() == 0 ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
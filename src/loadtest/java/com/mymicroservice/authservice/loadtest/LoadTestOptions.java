@@ -0,0 +1,65 @@
+package com.mymicroservice.authservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Command line of {@link LoadTest}. Runs are comparable only with the same mix, rate, duration and users.
+ *
+ * @param mix           weights of the operations, e.g. {@code login=30,refresh=20,validate=45,register=5}
+ * @param rate          requests per second started by the open-loop scheduler
+ * @param maxInFlight   requests that may wait for a response at once; above it a request is counted as overloaded
+ * @param users         registered users whose sessions are shared by login, refresh and validate
+ * @param baseline      report of an earlier run to compare with, or {@code null}
+ * @param maxRegression allowed growth of p99 latency against the baseline, in percent
+ */
+public record LoadTestOptions(TrafficMix mix,
+                              int rate,
+                              Duration warmup,
+                              Duration duration,
+                              int maxInFlight,
+                              int users,
+                              Path output,
+                              Path baseline,
+                              double maxRegression) {
+
+    static final String DEFAULT_MIX = "login=30,refresh=20,validate=45,register=5";
+
+    public static LoadTestOptions parse(String[] args) {
+        TrafficMix mix = TrafficMix.parse(DEFAULT_MIX);
+        int rate = 200;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        int maxInFlight = 512;
+        int users = 200;
+        Path output = Path.of("target", "loadtest-result.json");
+        Path baseline = null;
+        double maxRegression = 20;
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--mix" -> mix = TrafficMix.parse(value);
+                case "--rate" -> rate = Integer.parseInt(value);
+                case "--warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "--duration" -> duration = DurationStyle.detectAndParse(value);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--output" -> output = Path.of(value);
+                case "--baseline" -> baseline = Path.of(value);
+                case "--max-regression" -> maxRegression = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (rate <= 0 || maxInFlight <= 0 || users <= 0) {
+            throw new IllegalArgumentException("rate, max-in-flight and users must be positive");
+        }
+        return new LoadTestOptions(mix, rate, warmup, duration, maxInFlight, users, output, baseline, maxRegression);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mymicroservice.authservice.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one run, written as JSON so runs on different commits can be compared with {@code --baseline}.
+ */
+public record LoadTestReport(String commit,
+                             Instant finishedAt,
+                             Environment environment,
+                             Settings settings,
+                             Map<String, OperationResult> operations) {
+
+    public static final String OVERLOADED = "overloaded";
+    public static final String NO_SESSION = "no-session";
+    public static final String IO_ERROR = "io-error";
+
+    public record Environment(String javaVersion, int cores, String virtualThreads, String bcryptStrength) {
+    }
+
+    public record Settings(String mix, int rate, long warmupSeconds, long durationSeconds, int maxInFlight, int users) {
+    }
+
+    /**
+     * @param requests   requests sent, answered or failed
+     * @param errors     requests without a 200 response (for validate, also {@code false})
+     * @param overloaded requests not sent because {@code max-in-flight} was reached
+     * @param throughput successful responses per second
+     * @param statuses   responses by HTTP status, plus skipped requests by reason
+     */
+    public record OperationResult(long requests,
+                                  long errors,
+                                  long overloaded,
+                                  double throughput,
+                                  double p50Ms,
+                                  double p90Ms,
+                                  double p99Ms,
+                                  double p999Ms,
+                                  double maxMs,
+                                  Map<String, Long> statuses) {
+    }
+
+    /**
+     * Operations whose p99 grew by more than {@code maxRegressionPercent} or whose error count grew
+     * against the baseline, described one per line.
+     */
+    public List<String> regressionsAgainst(LoadTestReport baseline, double maxRegressionPercent) {
+        List<String> regressions = new ArrayList<>();
+        operations.forEach((operation, current) -> {
+            OperationResult previous = baseline.operations().get(operation);
+            if (previous == null || previous.requests() == 0) {
+                return;
+            }
+            double growth = (current.p99Ms() - previous.p99Ms()) / previous.p99Ms() * 100;
+            if (growth > maxRegressionPercent) {
+                regressions.add(String.format("%s: p99 %.1f ms -> %.1f ms (+%.0f%%)",
+                        operation, previous.p99Ms(), current.p99Ms(), growth));
+            }
+            double previousErrorRate = (double) previous.errors() / previous.requests();
+            double currentErrorRate = current.requests() == 0 ? 0 : (double) current.errors() / current.requests();
+            if (currentErrorRate > previousErrorRate + 0.01) {
+                regressions.add(String.format("%s: error rate %.1f%% -> %.1f%%",
+                        operation, previousErrorRate * 100, currentErrorRate * 100));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mymicroservice.authservice.loadtest;
+
+import java.util.Locale;
+
+public enum Operation {
+    REGISTER, LOGIN, REFRESH, VALIDATE;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Operation of(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,69 @@
+package com.mymicroservice.authservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency (from the intended start of a request, so a stalled service is not hidden by fewer
+ * requests being sent) and response codes of one operation.
+ */
+public class OperationStats {
+
+    private final Recorder latencyMicros = new Recorder(3);
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder overloaded = new LongAdder();
+
+    public void record(int status, long latencyNanos) {
+        record(String.valueOf(status), latencyNanos);
+    }
+
+    /**
+     * The request failed without a response (connection error, timeout).
+     */
+    public void failed(long latencyNanos) {
+        record(LoadTestReport.IO_ERROR, latencyNanos);
+    }
+
+    /**
+     * The request was not sent: it could not get a session, or too many requests were in flight.
+     */
+    public void skipped(String reason) {
+        statuses.computeIfAbsent(reason, key -> new LongAdder()).increment();
+        if (LoadTestReport.OVERLOADED.equals(reason)) {
+            overloaded.increment();
+        }
+    }
+
+    private void record(String outcome, long latencyNanos) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        statuses.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    public LoadTestReport.OperationResult result(double seconds) {
+        Histogram histogram = latencyMicros.getIntervalHistogram();
+        Map<String, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        long total = histogram.getTotalCount();
+        long ok = counts.getOrDefault("200", 0L);
+        return new LoadTestReport.OperationResult(
+                total,
+                total - ok,
+                overloaded.sum(),
+                ok / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                counts);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
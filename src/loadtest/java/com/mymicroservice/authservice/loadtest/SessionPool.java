@@ -0,0 +1,56 @@
+package com.mymicroservice.authservice.loadtest;
+
+import com.mymicroservice.authservice.dto.AuthResponse;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Latest token pair per user. A refresh takes the pair out of its slot, so two concurrent refreshes
+ * never present the same token (which the service would treat as reuse), and puts the new pair back.
+ */
+public class SessionPool {
+
+    private static final int ATTEMPTS = 8;
+
+    private final AtomicReferenceArray<AuthResponse> sessions;
+
+    public SessionPool(int users) {
+        this.sessions = new AtomicReferenceArray<>(users);
+    }
+
+    public int size() {
+        return sessions.length();
+    }
+
+    public void put(int user, AuthResponse tokens) {
+        sessions.set(user, tokens);
+    }
+
+    /**
+     * @return the session of a random user, removed from the pool, or {@code null} if the sampled slots were empty
+     */
+    public Session take(RandomGenerator random) {
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int user = random.nextInt(sessions.length());
+            AuthResponse tokens = sessions.getAndSet(user, null);
+            if (tokens != null) {
+                return new Session(user, tokens);
+            }
+        }
+        return null;
+    }
+
+    public AuthResponse peek(RandomGenerator random) {
+        for (int i = 0; i < ATTEMPTS; i++) {
+            AuthResponse tokens = sessions.get(random.nextInt(sessions.length()));
+            if (tokens != null) {
+                return tokens;
+            }
+        }
+        return null;
+    }
+
+    public record Session(int user, AuthResponse tokens) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.mymicroservice.authservice.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation.
+ */
+public class TrafficMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] byTicket;
+
+    private TrafficMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Traffic mix needs at least one positive weight");
+        }
+        this.byTicket = new Operation[total];
+        int ticket = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                byTicket[ticket++] = entry.getKey();
+            }
+        }
+    }
+
+    /**
+     * @param spec comma separated {@code operation=weight} pairs
+     */
+    public static TrafficMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got '" + pair + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            weights.put(Operation.of(parts[0]), weight);
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Operation next(RandomGenerator random) {
+        return byTicket[random.nextInt(byTicket.length)];
+    }
+
+    public Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder spec = new StringBuilder();
+        weights.forEach((operation, weight) ->
+                spec.append(spec.isEmpty() ? "" : ",").append(operation.key()).append('=').append(weight));
+        return spec.toString();
+    }
+}
@@ -1,10 +1,14 @@
 package com.mymicroservice.authservice.advice;
 
 import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
+import com.mymicroservice.authservice.exception.TooManyRequestsException;
 import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
 import com.mymicroservice.authservice.util.ErrorItem;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -50,6 +54,18 @@ public class GlobalAdvice {
         return ResponseEntity.status(error.getStatusCode()).body(error);
     }
 
+    /**
+     * Handles refresh tokens that are invalid, expired, already rotated or revoked.
+     *
+     * @param e the InvalidRefreshTokenException to handle
+     * @return ResponseEntity with UNAUTHORIZED status
+     */
+    @ExceptionHandler({InvalidRefreshTokenException.class})
+    public ResponseEntity<ErrorItem> handleInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        ErrorItem error = ErrorItem.generateMessage(e, HttpStatus.UNAUTHORIZED);
+        return ResponseEntity.status(error.getStatusCode()).body(error);
+    }
+
     /**
      * Handles data integrity violation exceptions, for example,
      * when attempting to save a duplicate unique field (such as email),
@@ -105,4 +121,34 @@ public class GlobalAdvice {
         ErrorItem error = ErrorItem.generateMessage(e, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(error.getStatusCode()).body(error);
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles saturation of the password hashing pool: the login/register request is
+     * rejected immediately instead of occupying a request thread while waiting.
+     *
+     * @param e the PasswordHashingUnavailableException to handle
+     * @return ResponseEntity with SERVICE_UNAVAILABLE status and a Retry-After header
+     */
+    @ExceptionHandler({PasswordHashingUnavailableException.class})
+    public ResponseEntity<ErrorItem> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException e) {
+        ErrorItem error = ErrorItem.generateMessage(e, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handles a login attempt rejected by the rate limiter.
+     *
+     * @param e the TooManyRequestsException to handle
+     * @return ResponseEntity with TOO_MANY_REQUESTS status and a Retry-After header in whole seconds
+     */
+    @ExceptionHandler({TooManyRequestsException.class})
+    public ResponseEntity<ErrorItem> handleTooManyRequestsException(TooManyRequestsException e) {
+        ErrorItem error = ErrorItem.generateMessage(e, HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
+}
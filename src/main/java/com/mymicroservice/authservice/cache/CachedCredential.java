@@ -0,0 +1,25 @@
+package com.mymicroservice.authservice.cache;
+
+import com.mymicroservice.authservice.model.Role;
+import com.mymicroservice.authservice.model.UserCredential;
+
+/**
+ * The part of {@link UserCredential} needed to check a login.
+ *
+ * @param userId user id
+ * @param email email as stored
+ * @param passwordHash encoded password
+ * @param role user role
+ */
+public record CachedCredential(Long userId, String email, String passwordHash, Role role) {
+
+    public static CachedCredential of(UserCredential user) {
+        return new CachedCredential(user.getUserId(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    @Override
+    public String toString() {
+        // keep the password hash out of logs
+        return "CachedCredential[userId=" + userId + ", email=" + email + ", role=" + role + "]";
+    }
+}
@@ -0,0 +1,186 @@
+package com.mymicroservice.authservice.cache;
+
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter over the lower-cased emails of {@code user_credentials}.
+ *
+ * <p>{@link #mightExist} returning {@code false} means the email is definitely not registered,
+ * so login and register can skip the DB lookup. The filter is built at startup by streaming the
+ * table and rebuilt every {@code security.email-filter.rebuild-interval}; until the first build
+ * completes every email "might exist". Registrations on this instance are added immediately.
+ * Deleted emails cannot be removed from a Bloom filter: they stay false positives (and fall
+ * through to the DB) until the next rebuild.
+ *
+ * <p>Registrations on other instances are picked up every {@code security.email-filter.sync-interval}
+ * by reading the emails of users with a higher id than already seen (a primary key range scan that
+ * usually returns nothing). Until then such an email is rejected by login here as unknown.
+ *
+ * <p>Publishes {@code auth.email.filter.negatives} (login and register lookups answered without the DB).
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    private final UserCredentialRepository userCredentialRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final Counter negativesCounter;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    /** Users with a higher id are read by the next sync; -1 until the first build */
+    private long syncedAfterUserId = -1;
+    private long lastSeenMaxUserId;
+
+    public KnownEmailFilter(UserCredentialRepository userCredentialRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.email-filter.enabled:true}") boolean enabled,
+                            @Value("${security.email-filter.expected-emails:100000}") long expectedEmails,
+                            @Value("${security.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userCredentialRepository = userCredentialRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativesCounter = Counter.builder("auth.email.filter.negatives")
+                .description("Login and register lookups of unknown emails answered without a DB query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} if the email is definitely not registered, {@code true} if it may be
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (!enabled || current == null) {
+            return true;
+        }
+        boolean mightExist = current.mightContain(key(email));
+        if (!mightExist) {
+            negativesCounter.increment();
+        }
+        return mightExist;
+    }
+
+    /**
+     * Adds a registered email; call after the registration is committed.
+     */
+    public void add(String email) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(email);
+        // a rebuild in progress may have started its snapshot before this registration committed;
+        // reading it before the current filter means the key cannot miss both during the swap
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${security.email-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${security.email-filter.rebuild-interval:PT10M}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild the known email filter: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${security.email-filter.sync-interval:PT2S}",
+            fixedDelayString = "${security.email-filter.sync-interval:PT2S}")
+    public void scheduledSync() {
+        if (!enabled || filter == null) {
+            return;
+        }
+        try {
+            sync();
+        } catch (Exception e) {
+            log.warn("Failed to sync the known email filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the emails of users created since the previous sync, on any instance.
+     *
+     * @return number of emails read
+     */
+    public synchronized int sync() {
+        long maxUserId = userCredentialRepository.findMaxUserId();
+        List<String> emails = userCredentialRepository.findEmailsByUserIdGreaterThan(syncedAfterUserId);
+        emails.forEach(this::add);
+        // ids are taken at insert but become visible at commit, not necessarily in order:
+        // every id is read by two consecutive syncs
+        syncedAfterUserId = lastSeenMaxUserId;
+        lastSeenMaxUserId = maxUserId;
+        return emails.size();
+    }
+
+    /**
+     * Builds a new filter from {@code user_credentials} and swaps it in.
+     *
+     * @return number of emails loaded
+     */
+    public synchronized long rebuild() {
+        long userCount = userCredentialRepository.count();
+        long maxUserId = userCredentialRepository.findMaxUserId();
+        // leave room for registrations until the next rebuild
+        BloomFilter next = new BloomFilter(Math.max(expectedEmails, userCount * 2), falsePositiveRate);
+        AtomicLong loaded = new AtomicLong();
+        building = next;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userCredentialRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        next.put(key(email));
+                        loaded.incrementAndGet();
+                    });
+                }
+            });
+            filter = next;
+            if (syncedAfterUserId < 0) {
+                syncedAfterUserId = maxUserId;
+                lastSeenMaxUserId = maxUserId;
+            }
+        } finally {
+            building = null;
+        }
+        log.info("rebuild(): known email filter loaded {} emails ({} bits, {} hash functions)",
+                loaded.get(), next.bitCount(), next.hashFunctions());
+        return loaded.get();
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mymicroservice.authservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.authservice.dto.AuthResponse;
+import com.mymicroservice.authservice.util.TokenDigests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Joins refreshes of the same refresh token and remembers their result for a short grace window,
+ * keyed by the SHA-256 digest of the rotated-out refresh token.
+ *
+ * <p>The first refresh of a token registers a pending result before it rotates; a client that sends
+ * the same refresh token again at once (two tabs, a retry after a lost response) waits for it and gets
+ * the same token pair instead of losing the compare-and-set or raising a false reuse alarm. After the
+ * window the old token is treated as reused. A failed rotation is not remembered. The cache is local
+ * to the instance.
+ *
+ * <p>Statistics are published as {@code cache.*} meters with the tag {@code cache=jwt.refresh.grace}.
+ */
+@Component
+public class RefreshGraceCache {
+
+    public static final String CACHE_NAME = "jwt.refresh.grace";
+
+    private final AsyncCache<String, AuthResponse> cache;
+
+    public RefreshGraceCache(MeterRegistry meterRegistry,
+                             @Value("${jwt.refresh-token.grace-window:10s}") Duration graceWindow,
+                             @Value("${jwt.refresh-token.grace-cache.maximum-size:10000}") long maximumSize) {
+        boolean enabled = !graceWindow.isZero() && !graceWindow.isNegative();
+        // a pending rotation never expires; a window of 0 only joins refreshes that overlap
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(enabled ? graceWindow : Duration.ofNanos(1))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the token pair of a rotation of {@code refreshToken} that is in progress or completed
+     * within the grace window, otherwise runs {@code rotation} in the calling thread.
+     *
+     * @throws RuntimeException thrown by the rotation this call ran or joined
+     */
+    public AuthResponse getOrRotate(String refreshToken, Supplier<AuthResponse> rotation) {
+        CompletableFuture<AuthResponse> rotating = new CompletableFuture<>();
+        CompletableFuture<AuthResponse> result = cache.get(TokenDigests.sha256Hex(refreshToken), (digest, executor) -> rotating);
+        if (result == rotating) {
+            try {
+                rotating.complete(rotation.get());
+            } catch (Throwable e) {
+                // Caffeine drops exceptionally completed entries, so the next refresh rotates again
+                rotating.completeExceptionally(e);
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mymicroservice.authservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mymicroservice.authservice.util.TokenDigests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Bounded cache of successfully verified tokens keyed by the SHA-256 digest of the token.
+ *
+ * <p>Every entry expires no later than the {@code exp} of its token, so a cache hit
+ * never extends the lifetime of a token. Only valid tokens are cached: invalid ones
+ * are rejected on every call and cannot push valid entries out of the cache.
+ *
+ * <p>Hit/miss/eviction statistics are published as {@code cache.*} meters
+ * with the tag {@code cache=jwt.validation}.
+ */
+@Component
+public class TokenValidationCache {
+
+    public static final String CACHE_NAME = "jwt.validation";
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public TokenValidationCache(MeterRegistry meterRegistry,
+                                @Value("${jwt.validation-cache.enabled:true}") boolean enabled,
+                                @Value("${jwt.validation-cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<VerifiedToken> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(TokenDigests.sha256Hex(token)));
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        if (enabled && verifiedToken.expiresAt() != null && verifiedToken.expiresAt().isAfter(Instant.now())) {
+            cache.put(TokenDigests.sha256Hex(token), verifiedToken);
+        }
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expires an entry at the token {@code exp}; reads and updates do not prolong it.
+     */
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
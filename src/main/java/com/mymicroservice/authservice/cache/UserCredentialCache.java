@@ -0,0 +1,97 @@
+package com.mymicroservice.authservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Read-through cache of {@link CachedCredential} keyed by the lower-cased email.
+ *
+ * <p>Repeated logins for the same account (including bots replaying wrong passwords) check the
+ * password against the cached hash instead of querying {@code user_credentials} every time.
+ * Unknown emails are not cached. Entries expire after {@code security.credential-cache.ttl}
+ * and are evicted when the account is registered or deleted on this instance. An entry may be stale
+ * after a change on another instance, so a login re-reads the account before storing its refresh token.
+ *
+ * <p>The DB is queried outside the cache lock, so a slow lookup does not block other keys
+ * (or pin a virtual thread). Statistics are published as {@code cache.*} meters with the tag
+ * {@code cache=auth.credentials}.
+ */
+@Component
+public class UserCredentialCache {
+
+    public static final String CACHE_NAME = "auth.credentials";
+
+    private final UserCredentialRepository userCredentialRepository;
+    private final boolean enabled;
+    private final Cache<String, CachedCredential> cache;
+
+    public UserCredentialCache(UserCredentialRepository userCredentialRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${security.credential-cache.enabled:true}") boolean enabled,
+                               @Value("${security.credential-cache.ttl:5m}") Duration ttl,
+                               @Value("${security.credential-cache.maximum-size:10000}") long maximumSize) {
+        this.userCredentialRepository = userCredentialRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<CachedCredential> findByEmail(String email) {
+        if (!enabled) {
+            return load(email);
+        }
+        String key = key(email);
+        CachedCredential cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<CachedCredential> loaded = load(email);
+        loaded.ifPresent(credential -> cache.put(key, credential));
+        return loaded;
+    }
+
+    /**
+     * Evicts the account. Inside a transaction the entry is evicted again after completion,
+     * so a login that read the row before the commit cannot leave it in the cache.
+     */
+    public void evict(String email) {
+        String key = key(email);
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private Optional<CachedCredential> load(String email) {
+        return userCredentialRepository.findByEmailIgnoreCase(email).map(CachedCredential::of);
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
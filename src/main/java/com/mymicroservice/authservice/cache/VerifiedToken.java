@@ -0,0 +1,14 @@
+package com.mymicroservice.authservice.cache;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature has already been verified.
+ *
+ * @param subject token subject (user email)
+ * @param roles roles claim
+ * @param expiresAt token expiration
+ */
+public record VerifiedToken(String subject, List<String> roles, Instant expiresAt) {
+}
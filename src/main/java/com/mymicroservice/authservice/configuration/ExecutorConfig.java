@@ -0,0 +1,35 @@
+package com.mymicroservice.authservice.configuration;
+
+import com.mymicroservice.authservice.tracing.ObservationTaskDecorator;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool for verifying the tokens of a batch validation request in parallel.
+     * Sized to the number of cores because signature verification is CPU bound;
+     * when the queue is full the request thread verifies the token itself.
+     * Tasks run inside the submitting request's span.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor tokenValidationExecutor(
+            @Value("${jwt.validation-executor.queue-capacity:1000}") int queueCapacity,
+            ObservationRegistry observationRegistry) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("token-validation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ObservationTaskDecorator(observationRegistry));
+        return executor;
+    }
+}
@@ -1,19 +1,25 @@
 package com.mymicroservice.authservice.configuration;
 
 import com.mymicroservice.authservice.filter.GatewayAuthFilter;
+import com.mymicroservice.authservice.security.BoundedPasswordEncoder;
 import com.mymicroservice.authservice.security.CustomAccessDeniedHandler;
 import com.mymicroservice.authservice.security.CustomAuthenticationEntryPoint;
+import com.mymicroservice.authservice.security.PasswordEncoders;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -37,9 +43,11 @@ public class SecurityConfig {
                             "/auth/login",
                             "/auth/register",
                             "/auth/refresh",
+                            "/auth/logout",
+                            "/.well-known/jwks.json",
                             "/api/internal/**" //An internal call
                     ).permitAll()
-                    .requestMatchers("/auth/validate").authenticated()  // The rest methods are available to authenticated users.
+                    .requestMatchers("/auth/validate", "/auth/validate/batch").authenticated()  // The rest methods are available to authenticated users.
                     .anyRequest().authenticated()
             )
             .exceptionHandling(handling -> handling
@@ -51,8 +59,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Delegating encoder (BCrypt with a configurable cost, or Argon2id) executed on a hashing pool
+     * sized to the number of cores, so login/register bursts cannot occupy every request thread with hashing.
+     * The pool queue and active hashes are published as gauges.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.hashing.timeout:5s}") Duration timeout,
+                                           @Value("${security.password.encoder:bcrypt}") String encoder,
+                                           @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(
+                PasswordEncoders.delegating(encoder, bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism),
+                Runtime.getRuntime().availableProcessors(), queueCapacity, timeout);
+        meterRegistry.ifAvailable(passwordEncoder::bindTo);
+        return passwordEncoder;
     }
 }
@@ -0,0 +1,88 @@
+package com.mymicroservice.authservice.configuration;
+
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.ControllerTracingInterceptor;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.LogSpanExporter;
+import com.mymicroservice.authservice.tracing.RepositoryTracingInterceptor;
+import com.mymicroservice.authservice.tracing.SpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecordingHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spans for controller handlers, service operations, repository calls and crypto stages,
+ * recorded as Micrometer observations named {@code auth.span}.
+ *
+ * <p>{@code tracing.exporter}: {@code log} writes JSON lines to {@code logs/<service>-spans.log},
+ * {@code memory} keeps the last {@code tracing.memory.max-spans} spans for tests, {@code none}
+ * (default) turns the spans into no-op observations.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${tracing.exporter:none}") String exporter,
+                                     @Value("${tracing.memory.max-spans:10000}") int maxSpans) {
+        return switch (exporter) {
+            case "log" -> new LogSpanExporter();
+            case "memory" -> new InMemorySpanExporter(maxSpans);
+            case "none" -> SpanExporter.NONE;
+            default -> throw new IllegalArgumentException("Unknown tracing.exporter: " + exporter);
+        };
+    }
+
+    @Bean
+    public ObservationRegistryCustomizer<ObservationRegistry> spanRecordingCustomizer(SpanExporter spanExporter) {
+        return registry -> {
+            if (spanExporter == SpanExporter.NONE) {
+                registry.observationConfig().observationPredicate(
+                        (name, context) -> !AuthSpans.OBSERVATION_NAME.equals(name));
+            } else {
+                registry.observationConfig().observationHandler(new SpanRecordingHandler(spanExporter));
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer controllerTracingConfigurer(ObservationRegistry observationRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ControllerTracingInterceptor(observationRegistry));
+            }
+        };
+    }
+
+    /**
+     * Adds {@link RepositoryTracingInterceptor} to every Spring Data repository proxy, the same hook
+     * Spring Boot uses for its repository metrics. Static, and the registry and metrics are resolved lazily,
+     * because a post-processor is created before regular beans.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry, ObjectProvider<AuthMetrics> authMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryTracingInterceptor(
+                                            observationRegistry.getObject(), authMetrics.getObject(),
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
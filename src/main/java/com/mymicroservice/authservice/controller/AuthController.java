@@ -3,25 +3,33 @@ package com.mymicroservice.authservice.controller;
 import com.mymicroservice.authservice.dto.AuthRequest;
 import com.mymicroservice.authservice.dto.AuthResponse;
 import com.mymicroservice.authservice.dto.RefreshTokenRequest;
+import com.mymicroservice.authservice.dto.TokenValidationBatchRequest;
+import com.mymicroservice.authservice.dto.TokenValidationResult;
 import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.security.LoginRateLimiter;
 import com.mymicroservice.authservice.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Operation(summary = "Register a new user", description = "Save user credentials and create tokens")
     @PostMapping("/register")
@@ -31,7 +39,8 @@ public class AuthController {
 
     @Operation(summary = "LogIn the user", description = "Find the user and create tokens")
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthRequest request, HttpServletRequest httpRequest) {
+        loginRateLimiter.acquire(request.getEmail(), httpRequest);
         return ResponseEntity.ok(authService.authenticate(request));
     }
 
@@ -41,10 +50,31 @@ public class AuthController {
         return ResponseEntity.ok(authService.refreshToken(request));
     }
 
+    @Operation(summary = "Log out the session", description = "Revokes the session (device) of the refresh token")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody @Valid RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Log out all sessions", description = "Revokes the refresh tokens of all sessions of the current user")
+    @PostMapping("/logout/all")
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        authService.logoutAll(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Validate JWT token", description = "Checks if the token is valid")
     @PostMapping("/validate")
     public ResponseEntity<Boolean> validate(@Parameter(description = "JWT token (without 'Bearer')", required = true, example = "eyJhbGciOiJ...")
                                             @RequestParam String token) {
         return ResponseEntity.ok(authService.validateToken(token));
     }
+
+    @Operation(summary = "Validate a batch of JWT tokens",
+            description = "Checks up to 100 tokens in one call and returns validity, subject, roles and expiry per token")
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<TokenValidationResult>> validateBatch(@RequestBody @Valid TokenValidationBatchRequest request) {
+        return ResponseEntity.ok(authService.validateTokens(request.getTokens()));
+    }
 }
@@ -0,0 +1,40 @@
+package com.mymicroservice.authservice.controller;
+
+import com.mymicroservice.authservice.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    @Value("${jwt.jwks.max-age:5m}")
+    private Duration maxAge;
+
+    /**
+     * Publishes the public keys used to sign JWTs, so the Gateway can verify tokens locally
+     * instead of calling {@code /auth/validate}.
+     *
+     * <p>The response is cacheable for {@code jwt.jwks.max-age}; a conditional request with
+     * a matching {@code If-None-Match} gets 304 NOT MODIFIED without a body.
+     *
+     * @return JWK Set with the active, published and retired (still within overlap) keys
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        JwtKeyRing.JwkSet jwkSet = jwtKeyRing.getJwkSet();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .eTag(jwkSet.etag())
+                .body(jwkSet.json());
+    }
+}
@@ -0,0 +1,26 @@
+package com.mymicroservice.authservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of JWT tokens to validate")
+public class TokenValidationBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    @NotEmpty(message = "Tokens must not be empty")
+    @Size(max = MAX_BATCH_SIZE, message = "No more than " + MAX_BATCH_SIZE + " tokens per batch")
+    private List<@NotBlank(message = "Token must not be blank") String> tokens;
+}
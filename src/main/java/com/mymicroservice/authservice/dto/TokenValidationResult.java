@@ -0,0 +1,22 @@
+package com.mymicroservice.authservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Validation result of a single token; claims are present only for valid tokens")
+public class TokenValidationResult {
+    private boolean valid;
+    private String subject;
+    private List<String> roles;
+    private Instant expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.mymicroservice.authservice.exception;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+public class InvalidRefreshTokenException extends BadCredentialsException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidRefreshTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.mymicroservice.authservice.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,9 @@
 package com.mymicroservice.authservice.filter;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.model.Role;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,16 +11,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.mymicroservice.authservice.util.CommonConstants.GATEWAY_SERVICE_NAME;
 import static com.mymicroservice.authservice.util.CommonConstants.INTERNAL_CALL_HEADER;
@@ -28,6 +34,16 @@ import static com.mymicroservice.authservice.util.CommonConstants.SOURCE_SERVICE
 @RequiredArgsConstructor
 public class GatewayAuthFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * One shared authority per known role instead of a new object per request
+     */
+    private static final Map<String, GrantedAuthority> ROLE_AUTHORITIES = Arrays.stream(Role.values())
+            .collect(Collectors.toUnmodifiableMap(Role::getAuthority,
+                    role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.getAuthority())));
+
     private final ObjectMapper objectMapper;
 
     @Override
@@ -36,11 +52,11 @@ public class GatewayAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             if (isGatewayCall(request)) {
-                log.info("Request received from Gateway, processing JWT authentication");
+                log.debug("Request received from Gateway, processing JWT authentication");
                 parseJwtAndAuthenticate(request);
             } else {
                 SecurityContextHolder.clearContext();
-                log.info("Internal service-to-service call detected, no authentication required");
+                log.debug("Internal service-to-service call detected, no authentication required");
             }
         } catch (Exception e) {
             SecurityContextHolder.clearContext();
@@ -69,34 +85,75 @@ public class GatewayAuthFilter extends OncePerRequestFilter {
      */
     private void parseJwtAndAuthenticate(HttpServletRequest request) throws IOException {
         String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             log.warn("No Bearer token found in request from Gateway");
             return;
         }
 
-        String token = authHeader.substring(7);
-        String[] parts = token.split("\\.");
-        if (parts.length < 2) {
+        // header.payload.signature: the payload is located by index, no regex split and no substrings
+        int payloadStart = authHeader.indexOf('.', BEARER_PREFIX.length()) + 1;
+        if (payloadStart == 0) {
             log.warn("Invalid JWT structure, skipping authentication");
             return;
         }
+        int payloadEnd = authHeader.indexOf('.', payloadStart);
+        if (payloadEnd < 0) {
+            payloadEnd = authHeader.length();
+        }
 
         /**
          * JWT Base64 parsing, without signature verification (Gateway does it)
          */
-        String payloadJson = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
-        Map<String, Object> claims = objectMapper.readValue(payloadJson, Map.class);
-
-        String userId = (String) claims.get("sub");
-        List<String> roles = (List<String>) claims.getOrDefault("roles", List.of());
-
-        var authorities = roles.stream()
-                .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
-                .toList();
+        byte[] encoded = new byte[payloadEnd - payloadStart];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = (byte) authHeader.charAt(payloadStart + i);
+        }
+        byte[] payload = new byte[encoded.length * 3 / 4 + 3];
+        int payloadLength = Base64.getUrlDecoder().decode(encoded, payload);
+
+        String userId = null;
+        List<GrantedAuthority> authorities = List.of();
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload, 0, payloadLength)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                log.warn("JWT payload is not a JSON object, skipping authentication");
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("sub".equals(field)) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        // an object or array here would leave the parser inside it and let nested fields count
+                        log.warn("JWT subject is not a string, skipping authentication");
+                        return;
+                    }
+                    userId = parser.getText();
+                } else if ("roles".equals(field) && value == JsonToken.START_ARRAY) {
+                    authorities = readAuthorities(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
 
         var auth = new UsernamePasswordAuthenticationToken(userId, null, authorities);
         SecurityContextHolder.getContext().setAuthentication(auth);
 
-        log.info("SecurityContext set for user: {} with roles: {}", userId, roles);
+        log.debug("SecurityContext set for user: {} with authorities: {}", userId, authorities);
+    }
+
+    private static List<GrantedAuthority> readAuthorities(JsonParser parser) throws IOException {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String role = parser.getValueAsString();
+            if (role == null) {
+                parser.skipChildren();
+                continue;
+            }
+            GrantedAuthority authority = ROLE_AUTHORITIES.get(role);
+            // unknown roles are not interned, so forged tokens cannot grow the table
+            authorities.add(authority != null ? authority : new SimpleGrantedAuthority(ROLE_PREFIX + role));
+        }
+        return authorities;
     }
 }
@@ -0,0 +1,230 @@
+package com.mymicroservice.authservice.metrics;
+
+import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
+import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency of auth operations and of the stages inside them, as timers with percentile histograms.
+ *
+ * <ul>
+ *   <li>{@code auth.operation{operation, outcome}} - register, authenticate, refresh, validate, delete</li>
+ *   <li>{@code auth.stage{operation, stage, outcome}} - bcrypt, jwt.sign, jwt.verify, db</li>
+ * </ul>
+ *
+ * <p>A stage is tagged with the operation running on the current thread, or {@code none} outside one
+ * (scheduled jobs). The {@code db} stage is one repository call, recorded by
+ * {@link com.mymicroservice.authservice.tracing.RepositoryTracingInterceptor}; the per-method view is
+ * the {@code spring.data.repository.invocations} timer of Spring Boot. Outcomes: {@code success}, {@code bad-credentials}, {@code expired},
+ * {@code malformed}, {@code invalid}, {@code rejected}, {@code not-found}, {@code busy}, {@code error}.
+ *
+ * <p>Each timed call is also an {@code auth.span} observation (layer {@code service} or {@code crypto}),
+ * see {@link AuthSpans}.
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String OPERATION_TIMER = "auth.operation";
+    public static final String STAGE_TIMER = "auth.stage";
+
+    public static final String OPERATION_REGISTER = "register";
+    public static final String OPERATION_AUTHENTICATE = "authenticate";
+    public static final String OPERATION_REFRESH = "refresh";
+    public static final String OPERATION_VALIDATE = "validate";
+    public static final String OPERATION_DELETE = "delete";
+    public static final String OPERATION_NONE = "none";
+
+    public static final String STAGE_BCRYPT = "bcrypt";
+    public static final String STAGE_JWT_SIGN = "jwt.sign";
+    public static final String STAGE_JWT_VERIFY = "jwt.verify";
+    public static final String STAGE_DB = "db";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_BAD_CREDENTIALS = "bad-credentials";
+    public static final String OUTCOME_EXPIRED = "expired";
+    public static final String OUTCOME_MALFORMED = "malformed";
+    public static final String OUTCOME_INVALID = "invalid";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_NOT_FOUND = "not-found";
+    public static final String OUTCOME_BUSY = "busy";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final ThreadLocal<String> CURRENT_OPERATION = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Timers operationTimers;
+    private final ConcurrentMap<String, Timers> stageTimersByOperation = new ConcurrentHashMap<>();
+
+    public AuthMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.operationTimers = new Timers(meterRegistry, OPERATION_TIMER, Tags.empty(), "operation");
+    }
+
+    /**
+     * Times an operation; the outcome is {@code success} or derived from the thrown exception.
+     */
+    public <T> T operation(String operation, Supplier<T> action) {
+        return operation(operation, action, result -> OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Times an operation whose outcome, when it does not throw, depends on its result.
+     */
+    public <T> T operation(String operation, Supplier<T> action, Function<? super T, String> outcomeOfResult) {
+        String outer = CURRENT_OPERATION.get();
+        CURRENT_OPERATION.set(operation);
+        try {
+            return time(operationTimers, operation, AuthSpans.LAYER_SERVICE, action, outcomeOfResult);
+        } finally {
+            if (outer == null) {
+                CURRENT_OPERATION.remove();
+            } else {
+                CURRENT_OPERATION.set(outer);
+            }
+        }
+    }
+
+    public void operation(String operation, Runnable action) {
+        operation(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times a stage; the outcome is {@code success} or derived from the thrown exception.
+     */
+    public <T> T stage(String stage, Supplier<T> action) {
+        return time(stageTimers(), stage, AuthSpans.LAYER_CRYPTO, action, result -> OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Records a stage timed by the caller, which already has its own span (e.g. a repository call).
+     */
+    public void recordStage(String stage, long durationNanos, String outcome) {
+        stageTimers().get(stage, outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Maps an exception (or its cause) to an outcome tag.
+     */
+    public static String outcomeOf(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof ExpiredJwtException) {
+                return OUTCOME_EXPIRED;
+            }
+            if (t instanceof MalformedJwtException || t instanceof UnsupportedJwtException
+                    || t instanceof SecurityException) {
+                return OUTCOME_MALFORMED;
+            }
+        }
+        if (e instanceof InvalidCredentialsException) {
+            return OUTCOME_BAD_CREDENTIALS;
+        }
+        if (e instanceof JwtException || e instanceof BadCredentialsException) {
+            return OUTCOME_INVALID;
+        }
+        if (e instanceof IllegalArgumentException || e instanceof DataIntegrityViolationException) {
+            return OUTCOME_REJECTED;
+        }
+        if (e instanceof UserCredentialNotFoundException) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (e instanceof PasswordHashingUnavailableException) {
+            return OUTCOME_BUSY;
+        }
+        return OUTCOME_ERROR;
+    }
+
+    private <T> T time(Timers timers, String kind, String layer,
+                       Supplier<T> action, Function<? super T, String> outcomeOfResult) {
+        Observation span = AuthSpans.observation(kind, layer, observationRegistry).start();
+        long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
+        try (Observation.Scope scope = span.openScope()) {
+            T result = action.get();
+            outcome = outcomeOfResult.apply(result);
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            span.error(e);
+            throw e;
+        } finally {
+            timers.get(kind, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.lowCardinalityKeyValue("outcome", outcome);
+            span.stop();
+        }
+    }
+
+    private Timers stageTimers() {
+        String operation = CURRENT_OPERATION.get();
+        if (operation == null) {
+            operation = OPERATION_NONE;
+        }
+        Timers timers = stageTimersByOperation.get(operation);
+        if (timers == null) {
+            timers = stageTimersByOperation.computeIfAbsent(operation,
+                    o -> new Timers(meterRegistry, STAGE_TIMER, Tags.of("operation", o), "stage"));
+        }
+        return timers;
+    }
+
+    /**
+     * Timers of one name by kind and outcome, registered on first use; both tags take a small fixed
+     * set of values, so a recorded call is two map lookups without allocating a builder.
+     */
+    private static final class Timers {
+
+        private final MeterRegistry meterRegistry;
+        private final String name;
+        private final Tags tags;
+        private final String kindTag;
+        private final ConcurrentMap<String, ConcurrentMap<String, Timer>> byKind = new ConcurrentHashMap<>();
+
+        private Timers(MeterRegistry meterRegistry, String name, Tags tags, String kindTag) {
+            this.meterRegistry = meterRegistry;
+            this.name = name;
+            this.tags = tags;
+            this.kindTag = kindTag;
+        }
+
+        private Timer get(String kind, String outcome) {
+            ConcurrentMap<String, Timer> byOutcome = byKind.get(kind);
+            if (byOutcome == null) {
+                byOutcome = byKind.computeIfAbsent(kind, k -> new ConcurrentHashMap<>());
+            }
+            Timer timer = byOutcome.get(outcome);
+            if (timer == null) {
+                timer = byOutcome.computeIfAbsent(outcome, o -> Timer.builder(name)
+                        .tags(tags)
+                        .tag(kindTag, kind)
+                        .tag("outcome", o)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            return timer;
+        }
+    }
+}
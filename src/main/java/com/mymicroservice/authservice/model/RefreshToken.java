@@ -6,12 +6,14 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -25,15 +27,34 @@ public class RefreshToken {
     @Column(name = "token_id", nullable = false, updatable = false)
     private Long tokenId;
 
+    /**
+     * Session (device) the token belongs to; stays the same when the token is rotated.
+     */
+    @Column(name = "session_id", nullable = false, unique = true, updatable = false)
+    private UUID sessionId;
+
     @Column(name = "user_email", nullable = false, length = 200)
     private String userEmail;
 
-    @Column(name = "refresh_token", nullable = false, length = 1000)
-    private String refreshToken;
+    /**
+     * SHA-256 digest of the refresh token; the token itself is never stored.
+     */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "issued_at", nullable = false)
-    private LocalDateTime issuedAt;
+    private Instant issuedAt;
 
+    /**
+     * {@code timestamptz}: compared with exact instants by the expiry lookup and the purge.
+     */
     @Column(name = "expires_at", nullable = false)
-    private LocalDateTime expiresAt;
+    private Instant expiresAt;
+
+    /**
+     * Incremented on every rotation; a refresh only replaces the token of the version it has read.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
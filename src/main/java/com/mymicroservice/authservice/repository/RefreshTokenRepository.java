@@ -2,15 +2,104 @@ package com.mymicroservice.authservice.repository;
 
 import com.mymicroservice.authservice.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    void deleteRefreshTokenByUserEmailIgnoreCase(String email);
+    /**
+     * Revokes all sessions of the user. Case-insensitive delete;
+     * {@code lower(user_email)} matches the {@code ix_refresh_tokens_user_email_lower} index.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken r where lower(r.userEmail) = lower(:email)")
+    void deleteRefreshTokenByUserEmailIgnoreCase(@Param("email") String email);
 
-    Optional<RefreshToken> findByUserEmailIgnoreCase(String userEmail);
+    /**
+     * Revokes a single session by the unique {@code session_id} index.
+     *
+     * @return number of deleted rows (0 if the session was already revoked)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken r where r.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") UUID sessionId);
 
+    /**
+     * Point lookup by the unique {@code token_hash} index.
+     *
+     * @param tokenHash SHA-256 digest of the refresh token
+     */
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Inserts the digest of the session's refresh token or replaces the existing one in a single statement.
+     * Relies on the unique index on {@code session_id}, so concurrent refreshes of the
+     * same session cannot fail with a duplicate key: the last write wins.
+     * Other sessions of the same user are not touched.
+     *
+     * @return number of affected rows (always 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO refresh_tokens (session_id, user_email, token_hash, issued_at, expires_at, version)
+            VALUES (:sessionId, :userEmail, :tokenHash, :issuedAt, :expiresAt, 0)
+            ON CONFLICT (session_id) DO UPDATE
+            SET token_hash = EXCLUDED.token_hash,
+                issued_at = EXCLUDED.issued_at,
+                expires_at = EXCLUDED.expires_at,
+                version = refresh_tokens.version + 1
+            """, nativeQuery = true)
+    int upsertRefreshToken(@Param("sessionId") UUID sessionId,
+                           @Param("userEmail") String userEmail,
+                           @Param("tokenHash") byte[] tokenHash,
+                           @Param("issuedAt") Instant issuedAt,
+                           @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Replaces the token of the session only if the row still has the version read before the refresh
+     * (compare-and-set in one statement). Of two concurrent refreshes of the same token exactly one
+     * updates the row; the other one gets 0 and no exception.
+     *
+     * @return 1 if the token was rotated, 0 if the session was rotated concurrently or revoked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update RefreshToken r
+            set r.tokenHash = :tokenHash,
+                r.issuedAt = :issuedAt,
+                r.expiresAt = :expiresAt,
+                r.version = r.version + 1
+            where r.sessionId = :sessionId and r.version = :version
+            """)
+    int rotateRefreshToken(@Param("sessionId") UUID sessionId,
+                           @Param("version") long version,
+                           @Param("tokenHash") byte[] tokenHash,
+                           @Param("issuedAt") Instant issuedAt,
+                           @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Deletes at most {@code batchSize} expired rows, addressed by {@code ctid} so the outer delete
+     * is a TID scan over rows already found through {@code ix_refresh_tokens_expires_at}.
+     * Rows locked by a concurrent refresh are skipped, so a batch never waits on user traffic
+     * and every batch holds its row locks only for a short transaction.
+     *
+     * @return number of deleted rows; less than {@code batchSize} when nothing expired is left
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE ctid = ANY (ARRAY(
+                SELECT ctid FROM refresh_tokens
+                WHERE expires_at < :now
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED))
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
@@ -1,14 +1,69 @@
 package com.mymicroservice.authservice.repository;
 
+import com.mymicroservice.authservice.model.Role;
 import com.mymicroservice.authservice.model.UserCredential;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserCredentialRepository extends JpaRepository<UserCredential, Long> {
 
-    Optional<UserCredential> findByEmailIgnoreCase(String username);
+    /**
+     * Case-insensitive lookup written as {@code lower(email) = lower(?)} to match the
+     * {@code ux_user_credentials_email_lower} functional index (the derived {@code IgnoreCase}
+     * query uses {@code upper()} and falls back to a sequential scan).
+     */
+    @Query("select u from UserCredential u where lower(u.email) = lower(:username)")
+    Optional<UserCredential> findByEmailIgnoreCase(@Param("username") String username);
+
+    /**
+     * Streams all emails with a server-side cursor; must be consumed and closed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select u.email from UserCredential u")
+    Stream<String> streamAllEmails();
+
+    @Query("select coalesce(max(u.userId), 0) from UserCredential u")
+    long findMaxUserId();
+
+    /**
+     * Emails of users created after {@code userId}; a range scan of the primary key.
+     */
+    @Query("select u.email from UserCredential u where u.userId > :userId")
+    List<String> findEmailsByUserIdGreaterThan(@Param("userId") long userId);
+
+    /**
+     * Replaces the password hash only if it is still the one the caller read, so a rehash
+     * never overwrites a concurrent password change.
+     *
+     * @return 1 if the hash was replaced, 0 if it changed in the meantime
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserCredential u set u.password = :newHash where u.userId = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /**
+     * Reads the account {@code FOR SHARE} if it still has the given password hash and role. Used in the
+     * transaction that stores the refresh token of a login checked against a cached credential: an account
+     * deleted or changed on another instance is not found, and a concurrent delete waits for the commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select u from UserCredential u where u.userId = :id and u.password = :passwordHash and u.role = :role")
+    Optional<UserCredential> findCurrentForShare(@Param("id") Long id, @Param("passwordHash") String passwordHash,
+                                                 @Param("role") Role role);
 
 }
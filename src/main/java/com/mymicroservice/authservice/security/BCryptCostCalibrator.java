@@ -0,0 +1,80 @@
+package com.mymicroservice.authservice.security;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the highest BCrypt cost whose password check stays within a target time on this machine.
+ * Run it on the production hardware and put the result into {@code security.password.bcrypt.strength}:
+ *
+ * <pre>
+ * java -cp authservice.jar -Dloader.main=com.mymicroservice.authservice.security.BCryptCostCalibrator \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher 250ms 5
+ * </pre>
+ *
+ * Arguments: target verify time (default {@code 250ms}) and samples per cost (default 5).
+ * Every cost step doubles the time, so costs are tried upwards and the search stops at the first
+ * one over the target. The result is never below {@value #MIN_COST}.
+ */
+public class BCryptCostCalibrator {
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final IntToLongFunction verifyNanos;
+
+    /**
+     * @param verifyNanos time in nanoseconds of one password check at the given cost
+     */
+    public BCryptCostCalibrator(IntToLongFunction verifyNanos) {
+        this.verifyNanos = verifyNanos;
+    }
+
+    public int calibrate(Duration targetVerifyTime) {
+        long target = targetVerifyTime.toNanos();
+        int cost = MIN_COST;
+        while (cost < MAX_COST && verifyNanos.applyAsLong(cost + 1) <= target) {
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * Median time of {@code samples} checks of a password hashed with {@code cost}, after one warm-up check.
+     */
+    public static long medianVerifyNanos(int cost, int samples) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        encoder.matches(SAMPLE_PASSWORD, hash);
+
+        long[] times = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[samples / 2];
+    }
+
+    public static void main(String[] args) {
+        Duration target = args.length > 0 ? DurationStyle.detectAndParse(args[0]) : Duration.ofMillis(250);
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(cost -> {
+            long nanos = medianVerifyNanos(cost, samples);
+            System.out.printf("cost %2d: %6d ms%n", cost, Duration.ofNanos(nanos).toMillis());
+            return nanos;
+        });
+        int cost = calibrator.calibrate(target);
+
+        System.out.printf("target %d ms, %d cores%n", target.toMillis(), Runtime.getRuntime().availableProcessors());
+        System.out.println("security.password.bcrypt.strength=" + cost);
+    }
+}
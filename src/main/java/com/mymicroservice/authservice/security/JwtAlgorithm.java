@@ -0,0 +1,27 @@
+package com.mymicroservice.authservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Asymmetric algorithms supported for signing JWTs ({@code jwt.algorithm}).
+ * Each value knows which {@link java.security.KeyFactory} algorithm reads its PEM keys.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum JwtAlgorithm {
+
+    RS256("RSA", Jwts.SIG.RS256),
+    RS384("RSA", Jwts.SIG.RS384),
+    RS512("RSA", Jwts.SIG.RS512),
+    PS256("RSA", Jwts.SIG.PS256),
+    ES256("EC", Jwts.SIG.ES256),
+    ES384("EC", Jwts.SIG.ES384),
+    ES512("EC", Jwts.SIG.ES512),
+    EdDSA("EdDSA", Jwts.SIG.EdDSA);
+
+    private final String keyFactoryAlgorithm;
+    private final SignatureAlgorithm signatureAlgorithm;
+}
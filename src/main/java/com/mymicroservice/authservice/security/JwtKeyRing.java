@@ -0,0 +1,199 @@
+package com.mymicroservice.authservice.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.util.PemKeys;
+import com.mymicroservice.authservice.util.TokenDigests;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing and verification keys of the service.
+ *
+ * <p>Tokens are signed with the active key and carry its {@code kid} (RFC 7638 thumbprint,
+ * so every replica derives the same id from the same key). Verification looks the key up
+ * by {@code kid}, which lets several keys be valid at the same time:
+ * <ul>
+ *     <li>the active key;</li>
+ *     <li>published keys ({@code jwt.key-ring.published-key-locations}) — the next key can be
+ *     published in the JWKS before it is activated, so verifiers already have it cached;</li>
+ *     <li>retired keys — when the key files are replaced, the previous key keeps verifying
+ *     and stays in the JWKS for {@code jwt.key-ring.overlap}.</li>
+ * </ul>
+ * Key files are re-read every {@code jwt.key-ring.reload-interval}, so keys rotate without a redeploy.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final JwtAlgorithm algorithm;
+    private final String privateKeyLocation;
+    private final String publicKeyLocation;
+    private final List<String> publishedKeyLocations;
+    private final Duration overlap;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    private volatile State state;
+
+    public JwtKeyRing(@Value("${jwt.algorithm:RS256}") JwtAlgorithm algorithm,
+                      @Value("${jwt.private-key-location:keys/private.pem}") String privateKeyLocation,
+                      @Value("${jwt.public-key-location:keys/public.pem}") String publicKeyLocation,
+                      @Value("${jwt.key-ring.published-key-locations:}") List<String> publishedKeyLocations,
+                      @Value("${jwt.key-ring.overlap:1d}") Duration overlap,
+                      ObjectMapper objectMapper) {
+        this.algorithm = algorithm;
+        this.privateKeyLocation = privateKeyLocation;
+        this.publicKeyLocation = publicKeyLocation;
+        this.publishedKeyLocations = publishedKeyLocations;
+        this.overlap = overlap;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${jwt.key-ring.reload-interval:PT5M}",
+            fixedDelayString = "${jwt.key-ring.reload-interval:PT5M}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("scheduledReload(): keeping current keys, reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the key files. If the active key has changed, the previous one is retired
+     * and remains valid for verification until the overlap window ends.
+     */
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        State current = this.state;
+
+        PrivateKey privateKey = PemKeys.readPrivateKey(
+                resourceLoader.getResource(privateKeyLocation), algorithm.getKeyFactoryAlgorithm());
+        PublicKey publicKey = PemKeys.readPublicKey(
+                resourceLoader.getResource(publicKeyLocation), algorithm.getKeyFactoryAlgorithm());
+        PublicJwk<?> activeJwk = toJwk(publicKey, algorithm);
+        SigningKey signingKey = new SigningKey(activeJwk.getId(), algorithm, privateKey);
+
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(signingKey.keyId(), new VerificationKey(publicKey, activeJwk, null));
+
+        for (String location : publishedKeyLocations) {
+            if (location.isBlank()) {
+                continue;
+            }
+            PublicKey published = PemKeys.readPublicKey(resourceLoader.getResource(location.trim()));
+            PublicJwk<?> jwk = toJwk(published, null);
+            keys.putIfAbsent(jwk.getId(), new VerificationKey(published, jwk, null));
+        }
+
+        if (current != null) {
+            if (!current.signingKey().keyId().equals(signingKey.keyId())) {
+                VerificationKey previous = current.keys().get(current.signingKey().keyId());
+                keys.putIfAbsent(current.signingKey().keyId(),
+                        new VerificationKey(previous.publicKey(), previous.jwk(), now.plus(overlap)));
+                log.info("reload(): active key rotated from kid={} to kid={}, previous key retires after {}",
+                        current.signingKey().keyId(), signingKey.keyId(), overlap);
+            }
+            current.keys().forEach((kid, key) -> {
+                if (key.retiresAt() != null && key.retiresAt().isAfter(now)) {
+                    keys.putIfAbsent(kid, key);
+                }
+            });
+        }
+
+        this.state = new State(signingKey, Map.copyOf(keys), toJwkSet(keys));
+        if (current == null) {
+            log.info("reload(): signing JWTs with {} kid={}, {} verification key(s)",
+                    algorithm, signingKey.keyId(), keys.size());
+        }
+    }
+
+    public SigningKey getSigningKey() {
+        return state.signingKey();
+    }
+
+    /**
+     * @return public keys of the ring as a JWK Set (RFC 7517) and its ETag
+     */
+    public JwkSet getJwkSet() {
+        return state.jwkSet();
+    }
+
+    /**
+     * Resolves the verification key by the {@code kid} header.
+     * Tokens without a {@code kid} (issued before key ids were introduced) are verified with the active key.
+     */
+    @Override
+    protected Key locate(JwsHeader header) {
+        State current = this.state;
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return current.keys().get(current.signingKey().keyId()).publicKey();
+        }
+        VerificationKey key = current.keys().get(keyId);
+        if (key == null || (key.retiresAt() != null && key.retiresAt().isBefore(Instant.now()))) {
+            throw new JwtException("Unknown signing key: " + keyId);
+        }
+        return key.publicKey();
+    }
+
+    private PublicJwk<?> toJwk(PublicKey publicKey, JwtAlgorithm jwtAlgorithm) {
+        var builder = Jwks.builder().key(publicKey).publicKeyUse("sig");
+        if (jwtAlgorithm != null) {
+            builder.algorithm(jwtAlgorithm.name());
+        }
+        return builder.idFromThumbprint().build();
+    }
+
+    private JwkSet toJwkSet(Map<String, VerificationKey> keys) {
+        List<Map<String, ?>> jwks = new ArrayList<>();
+        keys.values().forEach(key -> jwks.add(key.jwk()));
+        try {
+            String json = objectMapper.writeValueAsString(Map.of("keys", jwks));
+            return new JwkSet(json, "\"" + TokenDigests.sha256Hex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize JWK Set", e);
+        }
+    }
+
+    public record SigningKey(String keyId, JwtAlgorithm algorithm, PrivateKey privateKey) {
+    }
+
+    public record JwkSet(String json, String etag) {
+    }
+
+    /**
+     * @param retiresAt end of the overlap window, {@code null} for keys that are currently configured
+     */
+    private record VerificationKey(PublicKey publicKey, PublicJwk<?> jwk, Instant retiresAt) {
+    }
+
+    private record State(SigningKey signingKey, Map<String, VerificationKey> keys, JwkSet jwkSet) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.mymicroservice.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymicroservice.authservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Throttles login attempts with {@link TokenBucket}s per client IP, per email and for the whole
+ * instance, so the BCrypt work of {@code /auth/login} stays within a fixed CPU budget.
+ *
+ * <p>Buckets are checked in that order and a rejected attempt uses no token of any bucket: the later
+ * ones are not consumed and the earlier ones get their token back. One IP cannot drain the bucket of
+ * someone else's email beyond its own limit, and attempts rejected for one email do not use up the
+ * IP budget of other users behind the same NAT. Per-key buckets live in bounded Caffeine caches
+ * (lock-striped maps) and are dropped after staying idle for their refill period, when they
+ * would be full again anyway.
+ *
+ * <p>The client IP is the remote address of the connection. Only for requests from one of
+ * {@code security.login-rate-limit.trusted-proxies} (e.g. the Gateway) it is the last address of
+ * {@code security.login-rate-limit.client-ip-header}, the one appended by that proxy; earlier entries
+ * are set by the client and are ignored. Anyone else could send a new header value with every request.
+ *
+ * <p>Publishes {@code auth.login.rate.limited} with the tag {@code limit=ip|email|global}.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final String MESSAGE = "Too many login attempts, try again later";
+
+    private final boolean enabled;
+    private final String clientIpHeader;
+    private final Set<String> trustedProxies;
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+    private final TokenBucket globalBucket;
+    private final Counter globalRejected;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${security.login-rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+                            @Value("${security.login-rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${security.login-rate-limit.email.refill-period:PT1M}") Duration emailRefillPeriod,
+                            @Value("${security.login-rate-limit.global.capacity:100}") int globalCapacity,
+                            @Value("${security.login-rate-limit.global.refill-period:PT1S}") Duration globalRefillPeriod,
+                            @Value("${security.login-rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${security.login-rate-limit.client-ip-header:}") String clientIpHeader,
+                            @Value("${security.login-rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        this.enabled = enabled;
+        this.clientIpHeader = clientIpHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.ipLimit = new Limit("ip", ipCapacity, ipRefillPeriod, maxKeys, meterRegistry);
+        this.emailLimit = new Limit("email", emailCapacity, emailRefillPeriod, maxKeys, meterRegistry);
+        this.globalBucket = new TokenBucket(globalCapacity, globalRefillPeriod);
+        this.globalRejected = rejectedCounter(meterRegistry, "global");
+    }
+
+    /**
+     * Takes a token from every bucket of a login request.
+     *
+     * @throws TooManyRequestsException if a bucket is empty
+     */
+    public void acquire(String email, HttpServletRequest request) {
+        acquire(email, clientIp(request));
+    }
+
+    /**
+     * Takes a token from every bucket of the attempt.
+     *
+     * @param email login email
+     * @param clientIp client address, may be {@code null} when unknown
+     * @throws TooManyRequestsException if a bucket is empty, with the time until it has a token again
+     */
+    public void acquire(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        TokenBucket ipBucket = clientIp != null ? ipLimit.acquire(clientIp, now) : null;
+        TokenBucket emailBucket;
+        try {
+            emailBucket = emailLimit.acquire(email.toLowerCase(Locale.ROOT), now);
+        } catch (TooManyRequestsException e) {
+            refund(ipBucket);
+            throw e;
+        }
+        long wait = globalBucket.tryConsume(now);
+        if (wait > 0) {
+            refund(ipBucket);
+            emailBucket.refund();
+            globalRejected.increment();
+            throw new TooManyRequestsException(MESSAGE, Duration.ofNanos(wait));
+        }
+    }
+
+    private static void refund(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        String forwarded = StringUtils.hasText(clientIpHeader) && trustedProxies.contains(request.getRemoteAddr())
+                ? request.getHeader(clientIpHeader)
+                : null;
+        if (StringUtils.hasText(forwarded)) {
+            String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+            if (!last.isEmpty()) {
+                return last;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("auth.login.rate.limited")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    private static final class Limit {
+
+        private final String name;
+        private final int capacity;
+        private final Duration refillPeriod;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        private Limit(String name, int capacity, Duration refillPeriod, long maxKeys, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(refillPeriod)
+                    .build();
+            this.rejected = rejectedCounter(meterRegistry, name);
+        }
+
+        /**
+         * @return the bucket the token was taken from
+         */
+        private TokenBucket acquire(String key, long now) {
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPeriod));
+            long wait = bucket.tryConsume(now);
+            if (wait > 0) {
+                rejected.increment();
+                log.debug("Login rate limit '{}' exceeded for: {}", name, key);
+                throw new TooManyRequestsException(MESSAGE, Duration.ofNanos(wait));
+            }
+            return bucket;
+        }
+    }
+}
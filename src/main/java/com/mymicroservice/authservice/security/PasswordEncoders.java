@@ -0,0 +1,54 @@
+package com.mymicroservice.authservice.security;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@link DelegatingPasswordEncoder} used for user passwords. New hashes are written as
+ * {@code {id}hash} with the configured algorithm and parameters; hashes stored before the prefix was
+ * introduced are plain BCrypt and are still matched. {@code upgradeEncoding} is {@code true} for a hash
+ * with another id, without a prefix, or with a lower BCrypt cost, so such hashes are rewritten on login.
+ */
+@UtilityClass
+public class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final String BOUNCY_CASTLE_ARGON2 = "org.bouncycastle.crypto.generators.Argon2BytesGenerator";
+
+    /**
+     * @param idForEncode      {@code bcrypt}, or {@code argon2} (Argon2id, needs BouncyCastle on the classpath)
+     * @param bcryptStrength   BCrypt cost, 4..31; pick it with {@link BCryptCostCalibrator}
+     * @param argon2MemoryKib  Argon2id memory in KiB
+     * @param argon2Iterations Argon2id passes over memory
+     * @param argon2Parallelism Argon2id lanes
+     */
+    public static PasswordEncoder delegating(String idForEncode, int bcryptStrength,
+                                             int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        if (ClassUtils.isPresent(BOUNCY_CASTLE_ARGON2, PasswordEncoders.class.getClassLoader())) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                    argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        }
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Password encoder '" + idForEncode + "' is not available; "
+                    + "supported: " + encoders.keySet() + " (argon2 requires org.bouncycastle:bcprov)");
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
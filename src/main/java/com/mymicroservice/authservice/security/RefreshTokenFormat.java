@@ -0,0 +1,21 @@
+package com.mymicroservice.authservice.security;
+
+/**
+ * Format of issued refresh tokens ({@code jwt.refresh-token.format}).
+ * <ul>
+ *     <li>{@link #JWT} - signed JWT carrying the subject and roles</li>
+ *     <li>{@link #OPAQUE} - random 256-bit handle that is only meaningful to this service;
+ *     it is resolved against {@code refresh_tokens}, so no signature is created or verified</li>
+ * </ul>
+ * Both formats are accepted on refresh regardless of the configured one, so the format
+ * can be switched without invalidating refresh tokens that were already issued.
+ *
+ * <p>Opaque tokens give up reuse detection: rotation overwrites the stored digest, so a rotated-out
+ * handle matches no row and is only rejected, while its session stays valid. A reused JWT names its
+ * session in a signed claim and revokes it; an unsigned handle carrying the session id would let
+ * anyone who learns the id revoke the session.
+ */
+public enum RefreshTokenFormat {
+    JWT,
+    OPAQUE
+}
@@ -0,0 +1,60 @@
+package com.mymicroservice.authservice.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket: holds up to {@code capacity} tokens and refills the whole bucket
+ * over {@code refillPeriod}.
+ *
+ * <p>The state is a single timestamp, the moment the bucket will be full again (the GCRA form
+ * of a token bucket), updated with CAS; no lock is taken and an idle bucket needs no timer.
+ */
+public class TokenBucket {
+
+    private final long tokenIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, Duration refillPeriod) {
+        if (capacity < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive");
+        }
+        this.tokenIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = tokenIntervalNanos * capacity;
+        this.fullAt = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return {@code 0} if a token was taken, otherwise nanoseconds until the next token is available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = current == Long.MIN_VALUE || current - nowNanos < 0 ? nowNanos : current;
+            long next = base + tokenIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryConsume} that was not used.
+     */
+    public void refund() {
+        while (true) {
+            long current = fullAt.get();
+            if (current == Long.MIN_VALUE || fullAt.compareAndSet(current, current - tokenIntervalNanos)) {
+                return;
+            }
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.mymicroservice.authservice.service;
 import com.mymicroservice.authservice.dto.AuthRequest;
 import com.mymicroservice.authservice.dto.AuthResponse;
 import com.mymicroservice.authservice.dto.RefreshTokenRequest;
+import com.mymicroservice.authservice.dto.TokenValidationResult;
 import com.mymicroservice.authservice.dto.UserRegistrationRequest;
 
+import java.util.List;
+
 public interface AuthService {
 
     AuthResponse register(UserRegistrationRequest request);
     AuthResponse authenticate(AuthRequest request);
     AuthResponse refreshToken(RefreshTokenRequest request);
+    void logout(RefreshTokenRequest request);
+    void logoutAll(String username);
     boolean validateToken(String token);
+    List<TokenValidationResult> validateTokens(List<String> tokens);
     void deleteUserCredential(Long userId);
 
 }
@@ -0,0 +1,94 @@
+package com.mymicroservice.authservice.service;
+
+import com.mymicroservice.authservice.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Periodically deletes refresh tokens whose {@code expires_at} has passed.
+ *
+ * <p>Rows are deleted in batches of {@code jwt.refresh-token.purge.batch-size}, each in its own
+ * short transaction, and one run stops after {@code max-batches} batches; the rest is picked up
+ * by the next run. Several instances may purge at the same time: locked rows are skipped.
+ *
+ * <p>Publishes {@code auth.refresh.tokens.purged} (deleted rows) and
+ * {@code auth.refresh.tokens.purge} (duration of a run).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "jwt.refresh-token.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPurgeService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
+
+    public RefreshTokenPurgeService(RefreshTokenRepository refreshTokenRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${jwt.refresh-token.purge.batch-size:1000}") int batchSize,
+                                    @Value("${jwt.refresh-token.purge.max-batches:100}") int maxBatches) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purgedCounter = Counter.builder("auth.refresh.tokens.purged")
+                .description("Expired refresh tokens deleted by the scheduled purge")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("auth.refresh.tokens.purge")
+                .description("Duration of a scheduled refresh token purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.refresh-token.purge.interval:PT1H}",
+            fixedDelayString = "${jwt.refresh-token.purge.interval:PT1H}")
+    public void scheduledPurge() {
+        try {
+            purgeExpired();
+        } catch (Exception e) {
+            log.error("Failed to purge expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired refresh tokens batch by batch until a batch comes back incomplete
+     * or {@code max-batches} is reached.
+     *
+     * @return number of deleted rows
+     */
+    public int purgeExpired() {
+        Timer.Sample sample = Timer.start();
+        Instant now = Instant.now();
+        int purged = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer deleted = transactionTemplate.execute(
+                        status -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+                int count = deleted != null ? deleted : 0;
+                purged += count;
+                purgedCounter.increment(count);
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            sample.stop(purgeTimer);
+        }
+        if (purged > 0) {
+            log.info("purgeExpired(): deleted {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+}
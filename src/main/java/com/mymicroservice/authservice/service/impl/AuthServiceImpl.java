@@ -3,22 +3,42 @@ package com.mymicroservice.authservice.service.impl;
 import com.mymicroservice.authservice.dto.AuthRequest;
 import com.mymicroservice.authservice.dto.AuthResponse;
 import com.mymicroservice.authservice.dto.RefreshTokenRequest;
+import com.mymicroservice.authservice.dto.TokenValidationResult;
 import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.cache.CachedCredential;
+import com.mymicroservice.authservice.cache.KnownEmailFilter;
+import com.mymicroservice.authservice.cache.RefreshGraceCache;
+import com.mymicroservice.authservice.cache.UserCredentialCache;
+import com.mymicroservice.authservice.cache.VerifiedToken;
 import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
 import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
 import com.mymicroservice.authservice.mapper.UserCredentialMapper;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.model.RefreshToken;
 import com.mymicroservice.authservice.model.Role;
 import com.mymicroservice.authservice.model.UserCredential;
 import com.mymicroservice.authservice.repository.UserCredentialRepository;
 import com.mymicroservice.authservice.service.AuthService;
 import com.mymicroservice.authservice.service.JwtService;
+import com.mymicroservice.authservice.util.TokenDigests;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
@@ -26,16 +46,34 @@ import java.util.List;
 public class AuthServiceImpl implements AuthService {
 
     private final UserCredentialRepository userCredentialRepository;
+    private final UserCredentialCache userCredentialCache;
+    private final KnownEmailFilter knownEmailFilter;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshGraceCache refreshGraceCache;
+    private final AuthMetrics authMetrics;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("tokenValidationExecutor")
+    private final Executor tokenValidationExecutor;
 
+    /** Hash checked against when the email is unknown, created on first use */
+    private volatile String dummyPasswordHash;
+
+    /**
+     * Registers a user. The password is hashed before the transaction is opened,
+     * so no DB connection is held while BCrypt runs; saving the user and the
+     * refresh token is still atomic.
+     */
     @Override
-    @Transactional
     public AuthResponse register(UserRegistrationRequest request) {
+        return authMetrics.operation(AuthMetrics.OPERATION_REGISTER, () -> registerUser(request));
+    }
 
-        log.info("Request to register user: {}", request.getEmail());
+    private AuthResponse registerUser(UserRegistrationRequest request) {
+        log.debug("Request to register user: {}", request.getEmail());
 
-        if (userCredentialRepository.findByEmailIgnoreCase(request.getEmail()).isPresent()) {
+        if (knownEmailFilter.mightExist(request.getEmail())
+                && userCredentialRepository.findByEmailIgnoreCase(request.getEmail()).isPresent()) {
             throw new IllegalArgumentException("User with this email already exists");
         }
 
@@ -44,75 +82,298 @@ public class AuthServiceImpl implements AuthService {
 
         if (roleAuthority == null || roleAuthority.equals("USER")) {
             user = UserCredentialMapper.INSTANSE.toEntity(request);
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(encodePassword(request.getPassword()));
             user.setRole(Role.USER);
-            log.info("Request to add new USER: {}", user.getEmail());
+            log.debug("Request to add new USER: {}", user.getEmail());
         } else if (roleAuthority.equals("ADMIN")) {
             user = UserCredentialMapper.INSTANSE.toEntity(request);
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(encodePassword(request.getPassword()));
             user.setRole(Role.ADMIN);
-            log.info("Request to add new ADMIN: {}", user.getEmail());
+            log.debug("Request to add new ADMIN: {}", user.getEmail());
         } else {
             throw new IllegalArgumentException("Unknown or unsupported role: " + roleAuthority);
         }
 
-        userCredentialRepository.save(user);
+        AuthResponse response = transactionTemplate.execute(status -> {
+            userCredentialRepository.save(user);
 
-        String access = jwtService.generateAccessToken(user.getUsername(), List.of(user.getRole().getAuthority()));
-        String refresh = jwtService.generateRefreshToken(user.getUsername(), List.of(user.getRole().getAuthority()));
-        jwtService.saveRefreshToken(refresh); // save refreshToken in DB
+            String access = jwtService.generateAccessToken(user.getUsername(), List.of(user.getRole().getAuthority()));
+            String refresh = jwtService.issueRefreshToken(user.getUsername(), List.of(user.getRole().getAuthority())); // save refreshToken in DB
 
-        return new AuthResponse(access, refresh);
+            return new AuthResponse(access, refresh);
+        });
+        userCredentialCache.evict(user.getEmail());
+        knownEmailFilter.add(user.getEmail());
+        return response;
     }
 
+    /**
+     * Checks the password of a user. Emails the {@link KnownEmailFilter} has never seen are rejected
+     * without a DB lookup; an unknown email still costs one password check against a dummy hash,
+     * so the response time does not reveal whether the account exists.
+     *
+     * <p>A cached credential may be stale when the account was deleted or changed on another instance,
+     * so the refresh token is only stored if the account still has the matched hash and role. Otherwise
+     * the entry is evicted and the login is checked once more against the DB.
+     */
     @Override
     public AuthResponse authenticate(AuthRequest request) {
-        log.info("Request to authenticate user: {}", request.getEmail());
+        return authMetrics.operation(AuthMetrics.OPERATION_AUTHENTICATE, () -> authenticateUser(request));
+    }
 
-        UserCredential user = userCredentialRepository.findByEmailIgnoreCase(request.getEmail())
-                .orElseThrow(() -> new InvalidCredentialsException("Incorrect email or password"));
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            log.warn("Authentication failed for user: {}", request.getEmail());
+    private AuthResponse authenticateUser(AuthRequest request) {
+        log.debug("Request to authenticate user: {}", request.getEmail());
+
+        if (!knownEmailFilter.mightExist(request.getEmail())) {
+            throw unknownEmail(request);
+        }
+        Optional<AuthResponse> response = login(request);
+        if (response.isEmpty()) {
+            log.debug("Cached credential of user {} is stale, checking the login again", request.getEmail());
+            userCredentialCache.evict(request.getEmail());
+            response = login(request);
+        }
+        return response.orElseThrow(() -> new InvalidCredentialsException("Incorrect email or password"));
+    }
+
+    /**
+     * @return empty if the matched credential is no longer the current one of the account
+     */
+    private Optional<AuthResponse> login(AuthRequest request) {
+        CachedCredential user = userCredentialCache.findByEmail(request.getEmail())
+                .orElseThrow(() -> unknownEmail(request));
+        if (!passwordMatches(request.getPassword(), user.passwordHash())) {
+            log.debug("Authentication failed for user: {}", request.getEmail());
             throw new InvalidCredentialsException("Incorrect email or password");
         }
+        CachedCredential current = upgradePasswordHash(user, request.getPassword());
+        List<String> roles = List.of(current.role().getAuthority());
+
+        // the row lock makes a concurrent delete wait until the refresh token is stored, so it removes the token too
+        String refresh = transactionTemplate.execute(status -> userCredentialRepository
+                .findCurrentForShare(current.userId(), current.passwordHash(), current.role())
+                .map(account -> jwtService.issueRefreshToken(current.email(), roles)) // save refreshToken in DB
+                .orElse(null));
+        if (refresh == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthResponse(jwtService.generateAccessToken(current.email(), roles), refresh));
+    }
 
-        String access = jwtService.generateAccessToken(user.getUsername(), List.of(user.getRole().getAuthority()));
-        String refresh = jwtService.generateRefreshToken(user.getUsername(), List.of(user.getRole().getAuthority()));
-        jwtService.saveRefreshToken(refresh); // save refreshToken in DB
+    /**
+     * Rehashes the password after a successful login when its hash was made with other parameters
+     * (no {@code {id}} prefix, another algorithm or a lower BCrypt cost). The update is conditional on
+     * the old hash; if hashing is busy or the update fails, the login still succeeds and the hash is
+     * upgraded on a later login.
+     *
+     * @return the credential with the new hash if it was replaced, otherwise {@code user}
+     */
+    private CachedCredential upgradePasswordHash(CachedCredential user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.passwordHash())) {
+            return user;
+        }
+        try {
+            String newHash = encodePassword(rawPassword);
+            Integer updated = transactionTemplate.execute(status ->
+                    userCredentialRepository.updatePasswordHash(user.userId(), user.passwordHash(), newHash));
+            userCredentialCache.evict(user.email());
+            boolean upgraded = updated != null && updated == 1;
+            log.debug("Password hash of user {} upgraded: {}", user.email(), upgraded);
+            return upgraded ? new CachedCredential(user.userId(), user.email(), newHash, user.role()) : user;
+        } catch (PasswordHashingUnavailableException | DataAccessException e) {
+            log.warn("Password hash upgrade of user {} postponed: {}", user.email(), e.getMessage());
+            return user;
+        }
+    }
 
-        return new AuthResponse(access, refresh);
+    private InvalidCredentialsException unknownEmail(AuthRequest request) {
+        passwordMatches(request.getPassword(), dummyPasswordHash());
+        return new InvalidCredentialsException("Incorrect email or password");
     }
 
+    private String dummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) {
+            // same encoder (and cost) as real hashes; a race only computes it twice
+            hash = encodePassword(UUID.randomUUID().toString());
+            dummyPasswordHash = hash;
+        }
+        return hash;
+    }
+
+    private String encodePassword(String rawPassword) {
+        return authMetrics.stage(AuthMetrics.STAGE_BCRYPT, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    private boolean passwordMatches(String rawPassword, String encodedPassword) {
+        return authMetrics.stage(AuthMetrics.STAGE_BCRYPT, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Rotates the refresh token of a session. The stored row is read once and replaced with a
+     * compare-and-set on its version, so concurrent refreshes of the same token cannot both rotate it.
+     * Refreshes of the same token on this instance are joined, and a token that was rotated within
+     * the grace window returns the same token pair again ({@link RefreshGraceCache}) instead of being
+     * treated as reused.
+     */
     @Override
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        log.info("Request to refresh token: {}", request.getRefreshToken());
+        return authMetrics.operation(AuthMetrics.OPERATION_REFRESH, () -> rotateRefreshToken(request));
+    }
 
-        String username = jwtService.extractUsername(request.getRefreshToken());
-        List<String> roles = jwtService.getRoles(request.getRefreshToken());
-        jwtService.deleteRefreshTokenByUserEmail(username);
+    private AuthResponse rotateRefreshToken(RefreshTokenRequest request) {
+        String presented = request.getRefreshToken();
+        if (log.isDebugEnabled()) {
+            log.debug("Request to refresh token: {}", TokenDigests.fingerprint(presented));
+        }
+
+        return refreshGraceCache.getOrRotate(presented, () -> rotate(presented));
+    }
+
+    private AuthResponse rotate(String presented) {
+        String username;
+        List<String> roles;
+        RefreshToken stored;
+        if (jwtService.isOpaqueRefreshToken(presented)) {
+            // Opaque handle: no signature to verify, the stored digest is the only source of truth.
+            // A rotated-out handle matches no row, so reuse is rejected without revoking the session
+            stored = jwtService.findActiveRefreshToken(presented)
+                    .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid or expired"));
+            username = stored.getUserEmail();
+            roles = userCredentialRepository.findByEmailIgnoreCase(username)
+                    .map(user -> List.of(user.getRole().getAuthority()))
+                    .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid or expired"));
+        } else {
+            // The signature is verified once; subject and roles are read from the same claims
+            Claims claims;
+            try {
+                claims = jwtService.extractAllClaims(presented);
+            } catch (JwtException e) {
+                throw new InvalidRefreshTokenException("Refresh token is invalid or expired", e);
+            }
+            username = claims.getSubject();
 
-        String access = jwtService.generateAccessToken(username, roles);
-        String refresh = jwtService.generateRefreshToken(username, roles);
-        jwtService.saveRefreshToken(refresh);
+            Optional<RefreshToken> current = jwtService.findStoredRefreshToken(presented)
+                    .filter(token -> token.getUserEmail().equalsIgnoreCase(username));
+            if (current.isEmpty()) {
+                // A validly signed token that is no longer stored was already used or revoked:
+                // treat it as stolen and revoke its session; tokens issued before sessions revoke all of them
+                UUID reusedSessionId = jwtService.getSessionId(claims);
+                log.warn("Refresh token reuse detected for user: {}, session: {}", username, reusedSessionId);
+                if (reusedSessionId != null) {
+                    jwtService.revokeSession(reusedSessionId);
+                } else {
+                    jwtService.deleteRefreshTokenByUserEmail(username);
+                }
+                throw new InvalidRefreshTokenException("Refresh token has already been used or revoked");
+            }
 
-        return new AuthResponse(access, refresh);
+            stored = current.get();
+            roles = jwtService.getRoles(claims);
+        }
+
+        // Other sessions (devices) of the user are not touched; losing the compare-and-set means
+        // a refresh of the same token on another instance won
+        String refresh = jwtService.rotateRefreshToken(stored, username, roles)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token has already been used"));
+        return new AuthResponse(jwtService.generateAccessToken(username, roles), refresh);
+    }
+
+    /**
+     * Revokes the session of the refresh token. Possession of the token is enough, so an expired access
+     * token does not prevent logout; unknown tokens are ignored.
+     */
+    @Override
+    public void logout(RefreshTokenRequest request) {
+        if (log.isDebugEnabled()) {
+            log.debug("Request to logout: {}", TokenDigests.fingerprint(request.getRefreshToken()));
+        }
+
+        jwtService.findStoredRefreshToken(request.getRefreshToken())
+                .ifPresent(stored -> jwtService.revokeSession(stored.getSessionId()));
+    }
+
+    @Override
+    public void logoutAll(String username) {
+        log.info("Request to logout all sessions of user: {}", username);
+        jwtService.deleteRefreshTokenByUserEmail(username);
     }
 
     @Override
     public boolean validateToken(String token) {
-        log.info("Request to validate token: {}", token);
+        if (log.isDebugEnabled()) {
+            log.debug("Request to validate token: {}", TokenDigests.fingerprint(token));
+        }
+
+        return verifyToken(token).isPresent();
+    }
 
-        return jwtService.isTokenValid(token);
+    /**
+     * Validates a batch of tokens, verifying them in parallel on {@code tokenValidationExecutor}.
+     * Results are returned in the order of the given tokens.
+     *
+     * @param tokens JWT tokens (without 'Bearer')
+     * @return per-token validity with subject, roles and expiry of valid tokens
+     */
+    @Override
+    public List<TokenValidationResult> validateTokens(List<String> tokens) {
+        log.debug("Request to validate {} tokens", tokens.size());
+
+        if (tokens.size() == 1) {
+            return List.of(toValidationResult(verifyToken(tokens.get(0))));
+        }
+
+        List<CompletableFuture<TokenValidationResult>> results = tokens.stream()
+                .map(token -> CompletableFuture.supplyAsync(
+                        () -> toValidationResult(verifyToken(token)), tokenValidationExecutor))
+                .toList();
+
+        return results.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Why a token is invalid (expired, malformed) is tagged on the {@code jwt.verify} stage.
+     * Cache hits are not timed: a span and a timer sample would cost more than the lookup itself,
+     * and they are counted by the {@code cache.gets{cache=jwt.validation}} meter.
+     */
+    private Optional<VerifiedToken> verifyToken(String token) {
+        Optional<VerifiedToken> cached = jwtService.findCachedToken(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return authMetrics.operation(AuthMetrics.OPERATION_VALIDATE, () -> jwtService.verifyUncachedToken(token),
+                verifiedToken -> verifiedToken.isPresent() ? AuthMetrics.OUTCOME_SUCCESS : AuthMetrics.OUTCOME_INVALID);
+    }
+
+    private TokenValidationResult toValidationResult(Optional<VerifiedToken> verifiedToken) {
+        return verifiedToken
+                .map(token -> TokenValidationResult.builder()
+                        .valid(true)
+                        .subject(token.subject())
+                        .roles(token.roles())
+                        .expiresAt(token.expiresAt())
+                        .build())
+                .orElseGet(() -> TokenValidationResult.builder().valid(false).build());
     }
 
     @Override
     @Transactional
     public void deleteUserCredential(Long userId) {
+        authMetrics.operation(AuthMetrics.OPERATION_DELETE, () -> deleteUser(userId));
+    }
+
+    private void deleteUser(Long userId) {
         UserCredential user = userCredentialRepository.findById(userId)
                 .orElseThrow(() -> new UserCredentialNotFoundException("UserCredential wasn't found with id " + userId));
 
-        jwtService.deleteRefreshTokenByUserEmail(user.getEmail());
+        // the account row goes first (flushed by the token delete), so a login storing a token for it
+        // either waits for this transaction and finds no account, or has stored its token before it is deleted
         userCredentialRepository.deleteById(userId);
+        jwtService.deleteRefreshTokenByUserEmail(user.getEmail());
+        // the email stays in KnownEmailFilter until its next rebuild and just falls through to the DB
+        userCredentialCache.evict(user.getEmail());
 
         log.info("deleteUserCredential(): userId={}, email={}", userId, user.getEmail());
     }
@@ -0,0 +1,27 @@
+package com.mymicroservice.authservice.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Names of the spans recorded inside a request. All of them are observations named {@code auth.span};
+ * the span name is the contextual name and the layer a low-cardinality key.
+ */
+@UtilityClass
+public class AuthSpans {
+
+    public static final String OBSERVATION_NAME = "auth.span";
+    public static final String LAYER_KEY = "layer";
+
+    public static final String LAYER_CONTROLLER = "controller";
+    public static final String LAYER_SERVICE = "service";
+    public static final String LAYER_REPOSITORY = "repository";
+    public static final String LAYER_CRYPTO = "crypto";
+
+    public static Observation observation(String name, String layer, ObservationRegistry observationRegistry) {
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(name)
+                .lowCardinalityKeyValue(LAYER_KEY, layer);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mymicroservice.authservice.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Opens the controller span of a request, named {@code <Controller>.<method>}. It is the root of the
+ * spans recorded by the service, the repositories and the crypto stages. Exceptions handled by
+ * GlobalAdvice do not reach {@code afterCompletion}; their result shows in the {@code status} tag.
+ */
+public class ControllerTracingInterceptor implements HandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = ControllerTracingInterceptor.class.getName() + ".scope";
+
+    private final ObservationRegistry observationRegistry;
+
+    public ControllerTracingInterceptor(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Observation observation = AuthSpans.observation(
+                            handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(),
+                            AuthSpans.LAYER_CONTROLLER, observationRegistry)
+                    .start();
+            request.setAttribute(SCOPE_ATTRIBUTE, observation.openScope());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof Observation.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+
+        Observation observation = scope.getCurrentObservation();
+        if (ex != null) {
+            observation.error(ex);
+        }
+        observation.lowCardinalityKeyValue("status", String.valueOf(response.getStatus()));
+        observation.stop();
+    }
+}
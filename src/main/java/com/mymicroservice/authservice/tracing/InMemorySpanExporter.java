@@ -0,0 +1,42 @@
+package com.mymicroservice.authservice.tracing;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the last {@code maxSpans} spans in memory, for tests and local debugging.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final ConcurrentLinkedDeque<SpanRecord> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSpans;
+
+    public InMemorySpanExporter(int maxSpans) {
+        if (maxSpans <= 0) {
+            throw new IllegalArgumentException("maxSpans must be positive");
+        }
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public void export(SpanRecord span) {
+        spans.addLast(span);
+        if (size.incrementAndGet() > maxSpans && spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Spans in the order they finished; children finish before their parents.
+     */
+    public List<SpanRecord> spans() {
+        return List.copyOf(spans);
+    }
+
+    public void clear() {
+        spans.clear();
+        size.set(0);
+    }
+}
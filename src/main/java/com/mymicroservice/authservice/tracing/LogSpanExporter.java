@@ -0,0 +1,22 @@
+package com.mymicroservice.authservice.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static net.logstash.logback.argument.StructuredArguments.fields;
+
+/**
+ * Writes spans as JSON lines through the {@code TRACE_SPANS} logger; logback-spring.xml routes it
+ * to {@code logs/<service>-spans.log} via an async appender.
+ */
+public class LogSpanExporter implements SpanExporter {
+
+    static final String LOGGER_NAME = "TRACE_SPANS";
+
+    private static final Logger SPAN_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    @Override
+    public void export(SpanRecord span) {
+        SPAN_LOG.info("span", fields(span));
+    }
+}
@@ -0,0 +1,31 @@
+package com.mymicroservice.authservice.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the current observation to a pool thread, so spans of a task submitted by a request
+ * are children of the request's span instead of new traces.
+ */
+public class ObservationTaskDecorator implements TaskDecorator {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservationTaskDecorator(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Observation parent = observationRegistry.getCurrentObservation();
+        if (parent == null) {
+            return runnable;
+        }
+        return () -> {
+            try (Observation.Scope scope = parent.openScope()) {
+                runnable.run();
+            }
+        };
+    }
+}
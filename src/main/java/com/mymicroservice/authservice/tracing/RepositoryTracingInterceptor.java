@@ -0,0 +1,49 @@
+package com.mymicroservice.authservice.tracing;
+
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Records a span named {@code <Repository>.<method>} around every repository call, and its duration as
+ * the {@code db} stage of the current auth operation. For methods returning a {@code Stream} both end
+ * when the stream is returned, not when it is consumed.
+ */
+public class RepositoryTracingInterceptor implements MethodInterceptor {
+
+    private final ObservationRegistry observationRegistry;
+    private final AuthMetrics authMetrics;
+    private final String repositoryName;
+
+    public RepositoryTracingInterceptor(ObservationRegistry observationRegistry, AuthMetrics authMetrics,
+                                        String repositoryName) {
+        this.observationRegistry = observationRegistry;
+        this.authMetrics = authMetrics;
+        this.repositoryName = repositoryName;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Observation observation = AuthSpans.observation(
+                        repositoryName + "." + invocation.getMethod().getName(),
+                        AuthSpans.LAYER_REPOSITORY, observationRegistry)
+                .start();
+        long start = System.nanoTime();
+        String outcome = AuthMetrics.OUTCOME_SUCCESS;
+        try (Observation.Scope scope = observation.openScope()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            outcome = AuthMetrics.outcomeOf(e);
+            observation.error(e);
+            throw e;
+        } finally {
+            authMetrics.recordStage(AuthMetrics.STAGE_DB, System.nanoTime() - start, outcome);
+            observation.stop();
+        }
+    }
+}
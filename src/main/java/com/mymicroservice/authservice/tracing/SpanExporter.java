@@ -0,0 +1,12 @@
+package com.mymicroservice.authservice.tracing;
+
+/**
+ * Receives every finished span. Called on the request thread, so implementations must not block.
+ */
+public interface SpanExporter {
+
+    SpanExporter NONE = span -> {
+    };
+
+    void export(SpanRecord span);
+}
@@ -0,0 +1,22 @@
+package com.mymicroservice.authservice.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span. Ids are hex strings in the OpenTelemetry format (32 chars for a trace, 16 for a span).
+ *
+ * @param parentSpanId   {@code null} for the root span of a request
+ * @param layer          controller, service, repository or crypto
+ * @param startEpochNanos wall-clock start, nanoseconds since the epoch
+ * @param error          simple class name of the exception that ended the span, {@code null} on success
+ */
+public record SpanRecord(String traceId,
+                         String spanId,
+                         String parentSpanId,
+                         String name,
+                         String layer,
+                         long startEpochNanos,
+                         long durationNanos,
+                         String error,
+                         Map<String, String> tags) {
+}
@@ -0,0 +1,95 @@
+package com.mymicroservice.authservice.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import org.slf4j.MDC;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Turns {@code auth.span} observations into {@link SpanRecord}s. A span inherits the trace id of its
+ * parent observation; a root span takes the {@code traceId} MDC key set by common-filters-starter,
+ * so spans can be joined with the request log, and generates one only when the key is missing.
+ */
+public class SpanRecordingHandler implements ObservationHandler<Observation.Context> {
+
+    static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final SpanExporter exporter;
+
+    public SpanRecordingHandler(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        SpanState parent = parentOf(context);
+        String traceId = parent != null ? parent.traceId() : rootTraceId();
+        context.put(SpanState.class, new SpanState(traceId, randomHex(), parent != null ? parent.spanId() : null,
+                epochNanos(Instant.now()), System.nanoTime()));
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        SpanState span = context.get(SpanState.class);
+        if (span == null) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - span.startNanoTime();
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getAllKeyValues()) {
+            if (!AuthSpans.LAYER_KEY.equals(keyValue.getKey())) {
+                tags.put(keyValue.getKey(), keyValue.getValue());
+            }
+        }
+        KeyValue layer = context.getLowCardinalityKeyValue(AuthSpans.LAYER_KEY);
+        Throwable error = context.getError();
+
+        exporter.export(new SpanRecord(
+                span.traceId(),
+                span.spanId(),
+                span.parentSpanId(),
+                context.getContextualName() != null ? context.getContextualName() : context.getName(),
+                layer != null ? layer.getValue() : null,
+                span.startEpochNanos(),
+                durationNanos,
+                error != null ? error.getClass().getSimpleName() : null,
+                tags));
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return AuthSpans.OBSERVATION_NAME.equals(context.getName());
+    }
+
+    private static SpanState parentOf(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        return parent != null ? parent.getContextView().get(SpanState.class) : null;
+    }
+
+    private static String rootTraceId() {
+        String traceId = MDC.get(TRACE_ID_MDC_KEY);
+        return traceId != null && !traceId.isBlank() ? traceId : randomHex() + randomHex();
+    }
+
+    private static String randomHex() {
+        return HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private record SpanState(String traceId, String spanId, String parentSpanId,
+                             long startEpochNanos, long startNanoTime) {
+    }
+}
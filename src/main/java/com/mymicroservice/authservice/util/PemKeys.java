@@ -0,0 +1,73 @@
+package com.mymicroservice.authservice.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reads PEM encoded keys: PKCS#8 private keys ({@code BEGIN PRIVATE KEY})
+ * and X.509 public keys ({@code BEGIN PUBLIC KEY}) of any algorithm (RSA, EC, EdDSA).
+ */
+@UtilityClass
+public class PemKeys {
+
+    private static final Pattern PEM_BOUNDARY = Pattern.compile("-----(BEGIN|END) [A-Z ]+-----");
+    private static final List<String> KEY_FACTORY_ALGORITHMS = List.of("RSA", "EC", "EdDSA");
+
+    public static PrivateKey readPrivateKey(Resource resource, String keyFactoryAlgorithm) {
+        try {
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decode(resource));
+            return KeyFactory.getInstance(keyFactoryAlgorithm).generatePrivate(spec);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load private key from: " + resource.getDescription(), e);
+        }
+    }
+
+    public static PublicKey readPublicKey(Resource resource, String keyFactoryAlgorithm) {
+        try {
+            X509EncodedKeySpec spec = new X509EncodedKeySpec(decode(resource));
+            return KeyFactory.getInstance(keyFactoryAlgorithm).generatePublic(spec);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load public key from: " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Reads a public key whose algorithm is not known in advance (RSA, EC or EdDSA).
+     */
+    public static PublicKey readPublicKey(Resource resource) {
+        X509EncodedKeySpec spec;
+        try {
+            spec = new X509EncodedKeySpec(decode(resource));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load public key from: " + resource.getDescription(), e);
+        }
+        for (String keyFactoryAlgorithm : KEY_FACTORY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(keyFactoryAlgorithm).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                // not a key of this algorithm, try the next one
+            }
+        }
+        throw new RuntimeException("Unsupported public key algorithm in: " + resource.getDescription());
+    }
+
+    private static byte[] decode(Resource resource) throws Exception {
+        try (InputStream inputStream = resource.getInputStream()) {
+            String pem = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            String key = PEM_BOUNDARY.matcher(pem).replaceAll("").replaceAll("\\s+", "");
+            return Base64.getDecoder().decode(key);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mymicroservice.authservice.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@UtilityClass
+public class TokenDigests {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int FINGERPRINT_BYTES = 8;
+
+    /**
+     * Calculates the SHA-256 digest of a token.
+     *
+     * @param token raw token value
+     * @return 32-byte digest
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    /**
+     * Calculates the SHA-256 digest of a token as a 64-character lowercase hex string.
+     *
+     * @param token raw token value
+     * @return hex encoded digest
+     */
+    public static String sha256Hex(String token) {
+        return HEX.formatHex(sha256(token));
+    }
+
+    /**
+     * Short, non-reversible token identifier for logs: the first 16 hex characters of the SHA-256 digest.
+     * Enough to correlate log lines of the same token without writing the token itself.
+     *
+     * @param token raw token value, may be {@code null}
+     * @return fingerprint, or {@code "none"} for a null token
+     */
+    public static String fingerprint(String token) {
+        if (token == null) {
+            return "none";
+        }
+        return HEX.formatHex(sha256(token), 0, FINGERPRINT_BYTES);
+    }
+}
@@ -0,0 +1,122 @@
+package com.mymicroservice.authservice.integration.repository;
+
+import com.mymicroservice.authservice.configuration.AbstractContainerTest;
+import com.mymicroservice.authservice.model.UserCredential;
+import com.mymicroservice.authservice.repository.RefreshTokenRepository;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.util.RefreshTokenGenerator;
+import com.mymicroservice.authservice.util.RefreshTokenLookupRepository;
+import com.mymicroservice.authservice.util.UserCredentialGenerator;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Locale;
+
+import static com.mymicroservice.authservice.util.data.TestConstants.REFRESH_TOKEN_EMAIL_INDEX;
+import static com.mymicroservice.authservice.util.data.TestConstants.USER_EMAIL_INDEX;
+import static com.mymicroservice.authservice.util.data.TestConstants.V3_CHANGELOG;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests run on a Hibernate-generated schema (Liquibase is disabled), so the v.3.0 changelog
+ * is applied explicitly, with its own changelog tables that are dropped after each test.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class EmailLowerIndexTest extends AbstractContainerTest {
+
+    private static final String CHANGELOG_TABLE = "index_test_changelog";
+    private static final String CHANGELOG_LOCK_TABLE = "index_test_changelog_lock";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserCredentialRepository userCredentialRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RefreshTokenLookupRepository refreshTokenLookupRepository;
+
+    private UserCredential expectedUser;
+
+    @BeforeEach
+    void init() throws Exception {
+        applyChangelog(V3_CHANGELOG);
+
+        refreshTokenRepository.deleteAll();
+        userCredentialRepository.deleteAll();
+        expectedUser = userCredentialRepository.save(UserCredentialGenerator.generateUser());
+        refreshTokenRepository.save(RefreshTokenGenerator.generateRefreshToken());
+        jdbcTemplate.execute("ANALYZE user_credentials");
+        jdbcTemplate.execute("ANALYZE refresh_tokens");
+        // tiny tables are always cheaper to scan; disable seq scans so the plan shows whether the index is usable
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @AfterEach
+    void dropChangelogTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + CHANGELOG_TABLE + ", " + CHANGELOG_LOCK_TABLE);
+    }
+
+    @Test
+    void findByEmailIgnoreCase_ShouldUseLowerEmailIndex_WhenEmailInDifferentCase() {
+        String email = expectedUser.getEmail().toUpperCase(Locale.ROOT);
+
+        assertThat(userCredentialRepository.findByEmailIgnoreCase(email)).contains(expectedUser);
+        assertThat(explain("SELECT * FROM user_credentials WHERE lower(email) = lower(?)", email))
+                .contains(USER_EMAIL_INDEX);
+    }
+
+    @Test
+    void deleteRefreshTokenByUserEmailIgnoreCase_ShouldUseLowerEmailIndex_WhenEmailInDifferentCase() {
+        String email = expectedUser.getEmail().toUpperCase(Locale.ROOT);
+
+        assertThat(refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(email)).hasSize(1);
+        assertThat(explain("SELECT * FROM refresh_tokens WHERE lower(user_email) = lower(?)", email))
+                .contains(REFRESH_TOKEN_EMAIL_INDEX);
+        assertThat(explain("DELETE FROM refresh_tokens WHERE lower(user_email) = lower(?)", email))
+                .contains(REFRESH_TOKEN_EMAIL_INDEX);
+    }
+
+    private String explain(String sql, String email) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, email);
+        return String.join("\n", plan);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void applyChangelog(String changelog) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            database.setDatabaseChangeLogTableName(CHANGELOG_TABLE);
+            database.setDatabaseChangeLogLockTableName(CHANGELOG_LOCK_TABLE);
+            new Liquibase(changelog, new ClassLoaderResourceAccessor(), database)
+                    .update(new Contexts(), new LabelExpression());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.mymicroservice.authservice.configuration.AbstractContainerTest;
 import com.mymicroservice.authservice.model.RefreshToken;
 import com.mymicroservice.authservice.repository.RefreshTokenRepository;
 import com.mymicroservice.authservice.util.RefreshTokenGenerator;
+import com.mymicroservice.authservice.util.RefreshTokenLookupRepository;
+import com.mymicroservice.authservice.util.TokenDigests;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +14,23 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 
+import static com.mymicroservice.authservice.util.data.TestConstants.NEW_REFRESH_TOKEN;
 import static com.mymicroservice.authservice.util.data.TestConstants.NON_EXISTING_EMAIL;
+import static com.mymicroservice.authservice.util.data.TestConstants.OTHER_SESSION_ID;
+import static com.mymicroservice.authservice.util.data.TestConstants.PURGE_BATCH_SIZE;
+import static com.mymicroservice.authservice.util.data.TestConstants.REFRESH_TOKEN_EXPIRES_AT;
+import static com.mymicroservice.authservice.util.data.TestConstants.REFRESH_TOKEN_ISSUED_AT;
+import static com.mymicroservice.authservice.util.data.TestConstants.REFRESH_TOKEN_VALUE;
+import static com.mymicroservice.authservice.util.data.TestConstants.SESSION_ID;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -29,6 +41,9 @@ class RefreshTokenRepositoryTest extends AbstractContainerTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private RefreshTokenLookupRepository refreshTokenLookupRepository;
+
     private RefreshToken expectedRefreshToken;
 
     @BeforeEach
@@ -38,30 +53,120 @@ class RefreshTokenRepositoryTest extends AbstractContainerTest {
     }
 
     @Test
-    void findByUserEmailIgnoreCase_ShouldReturnRefreshToken_WhenEmailExists() {
-        Optional<RefreshToken> actualRefreshToken = refreshTokenRepository.findByUserEmailIgnoreCase(
-                expectedRefreshToken.getUserEmail());
+    void deleteRefreshTokenByUserEmailIgnoreCase_ShouldDeleteAllSessions_WhenEmailExists() {
+        refreshTokenRepository.upsertRefreshToken(OTHER_SESSION_ID, expectedRefreshToken.getUserEmail(),
+                TokenDigests.sha256(NEW_REFRESH_TOKEN), REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        refreshTokenRepository.deleteRefreshTokenByUserEmailIgnoreCase(expectedRefreshToken.getUserEmail());
+
+        assertTrue(refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(expectedRefreshToken.getUserEmail()).isEmpty());
+    }
+
+    @Test
+    void deleteBySessionId_ShouldDeleteOnlyThatSession_WhenUserHasSeveralSessions() {
+        refreshTokenRepository.upsertRefreshToken(OTHER_SESSION_ID, expectedRefreshToken.getUserEmail(),
+                TokenDigests.sha256(NEW_REFRESH_TOKEN), REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        int deleted = refreshTokenRepository.deleteBySessionId(SESSION_ID);
+
+        assertEquals(1, deleted);
+        assertThat(refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(expectedRefreshToken.getUserEmail()))
+                .extracting(RefreshToken::getSessionId)
+                .containsExactly(OTHER_SESSION_ID);
+    }
+
+    @Test
+    void upsertRefreshToken_ShouldReplaceToken_WhenSessionExists() {
+        refreshTokenRepository.upsertRefreshToken(SESSION_ID, expectedRefreshToken.getUserEmail(), TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                REFRESH_TOKEN_ISSUED_AT.plus(Duration.ofDays(1)), REFRESH_TOKEN_EXPIRES_AT.plus(Duration.ofDays(1)));
+
+        RefreshToken actualRefreshToken = refreshTokenLookupRepository.findBySessionId(SESSION_ID).orElseThrow();
+
+        assertEquals(1, refreshTokenRepository.count());
+        assertEquals(expectedRefreshToken.getTokenId(), actualRefreshToken.getTokenId());
+        assertArrayEquals(TokenDigests.sha256(NEW_REFRESH_TOKEN), actualRefreshToken.getTokenHash());
+        assertEquals(REFRESH_TOKEN_EXPIRES_AT.plus(Duration.ofDays(1)), actualRefreshToken.getExpiresAt());
+    }
+
+    @Test
+    void upsertRefreshToken_ShouldAddSession_WhenSameUserLogsInOnAnotherDevice() {
+        refreshTokenRepository.upsertRefreshToken(OTHER_SESSION_ID, expectedRefreshToken.getUserEmail(),
+                TokenDigests.sha256(NEW_REFRESH_TOKEN), REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        assertEquals(2, refreshTokenRepository.count());
+        assertThat(refreshTokenLookupRepository.findBySessionId(SESSION_ID)).isPresent();
+        assertThat(refreshTokenLookupRepository.findBySessionId(OTHER_SESSION_ID))
+                .isPresent()
+                .get()
+                .extracting(RefreshToken::getTokenHash)
+                .isEqualTo(TokenDigests.sha256(NEW_REFRESH_TOKEN));
+    }
+
+    @Test
+    void rotateRefreshToken_ShouldReplaceTokenAndBumpVersion_WhenVersionMatches() {
+        long version = expectedRefreshToken.getVersion();
+
+        int rotated = refreshTokenRepository.rotateRefreshToken(SESSION_ID, version, TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                REFRESH_TOKEN_ISSUED_AT.plus(Duration.ofDays(1)), REFRESH_TOKEN_EXPIRES_AT.plus(Duration.ofDays(1)));
+
+        RefreshToken actualRefreshToken = refreshTokenLookupRepository.findBySessionId(SESSION_ID).orElseThrow();
+
+        assertEquals(1, rotated);
+        assertEquals(version + 1, actualRefreshToken.getVersion());
+        assertArrayEquals(TokenDigests.sha256(NEW_REFRESH_TOKEN), actualRefreshToken.getTokenHash());
+    }
+
+    @Test
+    void rotateRefreshToken_ShouldUpdateNothing_WhenSessionAlreadyRotated() {
+        long version = expectedRefreshToken.getVersion();
+        refreshTokenRepository.rotateRefreshToken(SESSION_ID, version, TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        int rotated = refreshTokenRepository.rotateRefreshToken(SESSION_ID, version, TokenDigests.sha256(REFRESH_TOKEN_VALUE),
+                REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        assertEquals(0, rotated);
+        assertArrayEquals(TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                refreshTokenLookupRepository.findBySessionId(SESSION_ID).orElseThrow().getTokenHash());
+    }
+
+    @Test
+    void findByTokenHash_ShouldReturnRefreshToken_WhenDigestMatches() {
+        Optional<RefreshToken> actualRefreshToken = refreshTokenRepository.findByTokenHash(
+                TokenDigests.sha256(REFRESH_TOKEN_VALUE));
 
-        assertNotNull(actualRefreshToken.orElse(null));
-        assertEquals(expectedRefreshToken, actualRefreshToken.get());
         assertThat(actualRefreshToken).isPresent().contains(expectedRefreshToken);
     }
 
     @Test
-    void findByUserEmailIgnoreCase_ShouldReturnEmpty_WhenEmailNotExists() {
-        Optional<RefreshToken> actualRefreshToken = refreshTokenRepository.findByUserEmailIgnoreCase(
-                NON_EXISTING_EMAIL);
+    void findByTokenHash_ShouldReturnEmpty_WhenDigestNotExists() {
+        Optional<RefreshToken> actualRefreshToken = refreshTokenRepository.findByTokenHash(
+                TokenDigests.sha256(NEW_REFRESH_TOKEN));
 
         assertFalse(actualRefreshToken.isPresent());
     }
 
     @Test
-    void deleteRefreshTokenByUserEmailIgnoreCase_ShouldDeleteRefreshToken_WhenEmailExists() {
-        refreshTokenRepository.deleteRefreshTokenByUserEmailIgnoreCase(expectedRefreshToken.getUserEmail());
+    void deleteExpiredBatch_ShouldDeleteOnlyExpiredTokens_WhenBatchIsLargeEnough() {
+        Instant now = Instant.now();
+        refreshTokenRepository.upsertRefreshToken(OTHER_SESSION_ID, NON_EXISTING_EMAIL, TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                now, now.plus(Duration.ofDays(1)));
 
-        Optional<RefreshToken> actualRefreshToken = refreshTokenRepository.findByUserEmailIgnoreCase(
-                expectedRefreshToken.getUserEmail());
+        int deleted = refreshTokenRepository.deleteExpiredBatch(now, PURGE_BATCH_SIZE);
 
-        assertFalse(actualRefreshToken.isPresent());
+        assertEquals(1, deleted);
+        assertFalse(refreshTokenLookupRepository.findBySessionId(SESSION_ID).isPresent());
+        assertThat(refreshTokenLookupRepository.findBySessionId(OTHER_SESSION_ID)).isPresent();
+    }
+
+    @Test
+    void deleteExpiredBatch_ShouldDeleteAtMostBatchSize_WhenMoreTokensExpired() {
+        refreshTokenRepository.upsertRefreshToken(OTHER_SESSION_ID, NON_EXISTING_EMAIL, TokenDigests.sha256(NEW_REFRESH_TOKEN),
+                REFRESH_TOKEN_ISSUED_AT, REFRESH_TOKEN_EXPIRES_AT);
+
+        int deleted = refreshTokenRepository.deleteExpiredBatch(Instant.now(), 1);
+
+        assertEquals(1, deleted);
+        assertEquals(1, refreshTokenRepository.count());
     }
 }
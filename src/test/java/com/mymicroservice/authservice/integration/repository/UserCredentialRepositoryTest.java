@@ -12,9 +12,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static com.mymicroservice.authservice.util.data.TestConstants.ENCODED_PASSWORD;
 import static com.mymicroservice.authservice.util.data.TestConstants.NON_EXISTING_EMAIL;
+import static com.mymicroservice.authservice.util.data.TestConstants.UPGRADED_PASSWORD_HASH;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -52,4 +56,43 @@ class UserCredentialRepositoryTest extends AbstractContainerTest {
 
         assertFalse(actualUser.isPresent());
     }
+
+    @Test
+    void streamAllEmails_ShouldReturnEveryEmail_WhenUsersExist() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            assertEquals(List.of(expectedUser.getEmail()), emails.toList());
+        }
+    }
+
+    @Test
+    void updatePasswordHash_ShouldReplaceHash_WhenOldHashMatches() {
+        int updated = userRepository.updatePasswordHash(expectedUser.getUserId(), expectedUser.getPassword(), UPGRADED_PASSWORD_HASH);
+
+        assertEquals(1, updated);
+        assertEquals(UPGRADED_PASSWORD_HASH, userRepository.findById(expectedUser.getUserId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void updatePasswordHash_ShouldKeepHash_WhenHashChangedConcurrently() {
+        int updated = userRepository.updatePasswordHash(expectedUser.getUserId(), ENCODED_PASSWORD, UPGRADED_PASSWORD_HASH);
+
+        assertEquals(0, updated);
+        assertEquals(expectedUser.getPassword(), userRepository.findById(expectedUser.getUserId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void findCurrentForShare_ShouldReturnUser_WhenHashAndRoleAreCurrent() {
+        Optional<UserCredential> current = userRepository.findCurrentForShare(
+                expectedUser.getUserId(), expectedUser.getPassword(), expectedUser.getRole());
+
+        assertEquals(expectedUser.getUserId(), current.orElseThrow().getUserId());
+    }
+
+    @Test
+    void findCurrentForShare_ShouldReturnEmpty_WhenHashChanged() {
+        userRepository.updatePasswordHash(expectedUser.getUserId(), expectedUser.getPassword(), UPGRADED_PASSWORD_HASH);
+
+        assertFalse(userRepository.findCurrentForShare(
+                expectedUser.getUserId(), expectedUser.getPassword(), expectedUser.getRole()).isPresent());
+    }
 }
@@ -5,11 +5,13 @@ import com.mymicroservice.authservice.dto.AuthRequest;
 import com.mymicroservice.authservice.dto.AuthResponse;
 import com.mymicroservice.authservice.dto.RefreshTokenRequest;
 import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
 import com.mymicroservice.authservice.model.UserCredential;
 import com.mymicroservice.authservice.repository.RefreshTokenRepository;
 import com.mymicroservice.authservice.repository.UserCredentialRepository;
 import com.mymicroservice.authservice.service.AuthService;
 import com.mymicroservice.authservice.util.AuthRequestGenerator;
+import com.mymicroservice.authservice.util.RefreshTokenLookupRepository;
 import com.mymicroservice.authservice.util.data.TestConstants;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,8 +22,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -39,6 +43,9 @@ class AuthFlowIT extends AbstractContainerTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private RefreshTokenLookupRepository refreshTokenLookupRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -60,7 +67,7 @@ class AuthFlowIT extends AbstractContainerTest {
         UserCredential savedUser = userCredentialRepository.findByEmailIgnoreCase(TestConstants.USER_EMAIL)
                 .orElseThrow();
         assertTrue(passwordEncoder.matches(TestConstants.USER_PASSWORD, savedUser.getPassword()));
-        assertTrue(refreshTokenRepository.findByUserEmailIgnoreCase(TestConstants.USER_EMAIL).isPresent());
+        assertEquals(1, refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(TestConstants.USER_EMAIL).size());
 
         AuthRequest loginRequest = new AuthRequest();
         loginRequest.setEmail(registrationRequest.getEmail());
@@ -69,6 +76,8 @@ class AuthFlowIT extends AbstractContainerTest {
 
         assertNotNull(loginResponse.getAccessToken());
         assertNotNull(loginResponse.getRefreshToken());
+        // a login on a second device starts a second session instead of replacing the first one
+        assertEquals(2, refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(TestConstants.USER_EMAIL).size());
 
         RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
         refreshRequest.setRefreshToken(loginResponse.getRefreshToken());
@@ -79,9 +88,18 @@ class AuthFlowIT extends AbstractContainerTest {
         assertTrue(authService.validateToken(refreshResponse.getAccessToken()));
         assertFalse(authService.validateToken(TestConstants.INVALID_TOKEN));
 
+        // the rotated-out refresh token is rejected and revokes its session only
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshRequest));
+        assertEquals(1, refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(TestConstants.USER_EMAIL).size());
+
+        RefreshTokenRequest registerSessionRequest = new RefreshTokenRequest();
+        registerSessionRequest.setRefreshToken(registerResponse.getRefreshToken());
+        authService.logout(registerSessionRequest);
+        assertTrue(refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(TestConstants.USER_EMAIL).isEmpty());
+
         authService.deleteUserCredential(savedUser.getUserId());
 
         assertTrue(userCredentialRepository.findById(savedUser.getUserId()).isEmpty());
-        assertTrue(refreshTokenRepository.findByUserEmailIgnoreCase(TestConstants.USER_EMAIL).isEmpty());
+        assertTrue(refreshTokenLookupRepository.findAllByUserEmailIgnoreCase(TestConstants.USER_EMAIL).isEmpty());
     }
 }
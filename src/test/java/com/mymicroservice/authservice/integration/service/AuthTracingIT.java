@@ -0,0 +1,75 @@
+package com.mymicroservice.authservice.integration.service;
+
+import com.mymicroservice.authservice.configuration.AbstractContainerTest;
+import com.mymicroservice.authservice.dto.AuthRequest;
+import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.repository.RefreshTokenRepository;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.service.AuthService;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import com.mymicroservice.authservice.util.AuthRequestGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "tracing.exporter=memory")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class AuthTracingIT extends AbstractContainerTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserCredentialRepository userCredentialRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userCredentialRepository.deleteAll();
+    }
+
+    @Test
+    void authenticate_ShouldRecordRepositoryAndCryptoSpans_WhenUserLogsIn() {
+        UserRegistrationRequest registrationRequest = AuthRequestGenerator.generateRegistrationRequest();
+        authService.register(registrationRequest);
+        spanExporter.clear();
+
+        AuthRequest loginRequest = new AuthRequest();
+        loginRequest.setEmail(registrationRequest.getEmail());
+        loginRequest.setPassword(registrationRequest.getPassword());
+        authService.authenticate(loginRequest);
+
+        List<SpanRecord> spans = spanExporter.spans();
+        SpanRecord login = spans.stream()
+                .filter(span -> AuthMetrics.OPERATION_AUTHENTICATE.equals(span.name()))
+                .findFirst()
+                .orElseThrow();
+        List<SpanRecord> children = spans.stream()
+                .filter(span -> login.spanId().equals(span.parentSpanId()))
+                .toList();
+
+        assertTrue(children.stream().allMatch(span -> login.traceId().equals(span.traceId())));
+        assertTrue(children.stream().anyMatch(span -> AuthSpans.LAYER_REPOSITORY.equals(span.layer())));
+        assertTrue(children.stream().anyMatch(span -> AuthMetrics.STAGE_BCRYPT.equals(span.name())));
+        assertTrue(children.stream().anyMatch(span -> AuthMetrics.STAGE_JWT_SIGN.equals(span.name())));
+        assertEquals(AuthMetrics.OUTCOME_SUCCESS, login.tags().get("outcome"));
+    }
+}
@@ -2,6 +2,9 @@ package com.mymicroservice.authservice.unit.advice;
 
 import com.mymicroservice.authservice.advice.GlobalAdvice;
 import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
+import com.mymicroservice.authservice.exception.TooManyRequestsException;
 import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
 import com.mymicroservice.authservice.util.ErrorItem;
 import jakarta.persistence.EntityNotFoundException;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.MethodParameter;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -22,6 +26,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
@@ -79,6 +85,18 @@ class GlobalAdviceTest {
         assertEquals("Incorrect email or password", response.getBody().getMessage());
     }
 
+    @Test
+    void handleInvalidRefreshTokenException_ShouldReturnUnauthorized_WhenRefreshTokenReused() {
+        InvalidRefreshTokenException exception =
+                new InvalidRefreshTokenException("Refresh token has already been used or revoked");
+
+        ResponseEntity<ErrorItem> response = globalAdvice.handleInvalidRefreshTokenException(exception);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertEquals("Refresh token has already been used or revoked", response.getBody().getMessage());
+    }
+
     @Test
     void handleBadCredentialsException_ShouldReturnBadRequest_WhenDataIntegrityViolated() {
         DataIntegrityViolationException exception = new DataIntegrityViolationException("Duplicate email");
@@ -134,4 +152,28 @@ class GlobalAdviceTest {
         assertNotNull(response.getBody());
         assertEquals("Entity not found", response.getBody().getMessage());
     }
+
+    @Test
+    void handlePasswordHashingUnavailableException_ShouldReturnServiceUnavailable_WhenHashingPoolIsSaturated() {
+        PasswordHashingUnavailableException exception = new PasswordHashingUnavailableException("Service is busy");
+
+        ResponseEntity<ErrorItem> response = globalAdvice.handlePasswordHashingUnavailableException(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("Service is busy", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleTooManyRequestsException_ShouldReturnTooManyRequests_WhenLoginRateLimited() {
+        TooManyRequestsException exception = new TooManyRequestsException("Too many login attempts", Duration.ofMillis(1500));
+
+        ResponseEntity<ErrorItem> response = globalAdvice.handleTooManyRequestsException(exception);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatusCode().value());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("Too many login attempts", response.getBody().getMessage());
+    }
 }
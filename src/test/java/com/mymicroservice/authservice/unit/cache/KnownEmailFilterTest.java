@@ -0,0 +1,114 @@
+package com.mymicroservice.authservice.unit.cache;
+
+import com.mymicroservice.authservice.cache.KnownEmailFilter;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEmailFilterTest {
+
+    @Mock
+    private UserCredentialRepository userCredentialRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KnownEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = newFilter(true);
+    }
+
+    @Test
+    void mightExist_ShouldReturnTrue_WhenFilterNotBuiltYet() {
+        assertTrue(filter.mightExist(TestConstants.NON_EXISTING_EMAIL));
+    }
+
+    @Test
+    void mightExist_ShouldReturnFalseForUnknownEmail_WhenFilterBuilt() {
+        when(userCredentialRepository.streamAllEmails()).thenReturn(Stream.of(TestConstants.USER_EMAIL));
+
+        assertEquals(1, filter.rebuild());
+
+        assertTrue(filter.mightExist(TestConstants.USER_EMAIL.toUpperCase(Locale.ROOT)));
+        assertFalse(filter.mightExist(TestConstants.NON_EXISTING_EMAIL));
+        assertEquals(1.0, meterRegistry.get("auth.email.filter.negatives").counter().count());
+    }
+
+    @Test
+    void add_ShouldMakeEmailKnown_WhenUserRegisteredAfterBuild() {
+        when(userCredentialRepository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.add(TestConstants.LOGIN_EMAIL);
+
+        assertTrue(filter.mightExist(TestConstants.LOGIN_EMAIL));
+    }
+
+    @Test
+    void sync_ShouldMakeEmailKnown_WhenUserRegisteredOnAnotherInstance() {
+        when(userCredentialRepository.findMaxUserId()).thenReturn(10L, 11L, 11L);
+        when(userCredentialRepository.streamAllEmails()).thenReturn(Stream.of(TestConstants.USER_EMAIL));
+        when(userCredentialRepository.findEmailsByUserIdGreaterThan(10L))
+                .thenReturn(List.of(TestConstants.LOGIN_EMAIL), List.of(TestConstants.LOGIN_EMAIL));
+        when(userCredentialRepository.findEmailsByUserIdGreaterThan(11L)).thenReturn(List.of());
+        filter.rebuild();
+        assertFalse(filter.mightExist(TestConstants.LOGIN_EMAIL));
+
+        assertEquals(1, filter.sync());
+        assertEquals(1, filter.sync()); // an id is read twice in case a lower one commits late
+        assertEquals(0, filter.sync());
+
+        assertTrue(filter.mightExist(TestConstants.LOGIN_EMAIL));
+    }
+
+    @Test
+    void scheduledSync_ShouldSkipQuery_WhenFilterNotBuiltYet() {
+        filter.scheduledSync();
+
+        verify(userCredentialRepository, never()).findEmailsByUserIdGreaterThan(anyLong());
+    }
+
+    @Test
+    void scheduledRebuild_ShouldKeepAnsweringMaybe_WhenRepositoryFails() {
+        when(userCredentialRepository.streamAllEmails()).thenThrow(new IllegalStateException("DB is down"));
+
+        filter.scheduledRebuild();
+
+        assertTrue(filter.mightExist(TestConstants.NON_EXISTING_EMAIL));
+    }
+
+    @Test
+    void mightExist_ShouldReturnTrue_WhenFilterDisabled() {
+        KnownEmailFilter disabled = newFilter(false);
+
+        disabled.scheduledRebuild();
+
+        assertTrue(disabled.mightExist(TestConstants.NON_EXISTING_EMAIL));
+    }
+
+    private KnownEmailFilter newFilter(boolean enabled) {
+        return new KnownEmailFilter(userCredentialRepository, mock(PlatformTransactionManager.class), meterRegistry,
+                enabled, TestConstants.EMAIL_FILTER_EXPECTED_EMAILS, TestConstants.EMAIL_FILTER_FALSE_POSITIVE_RATE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mymicroservice.authservice.unit.cache;
+
+import com.mymicroservice.authservice.cache.RefreshGraceCache;
+import com.mymicroservice.authservice.dto.AuthResponse;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RefreshGraceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshGraceCache cache;
+    private AuthResponse rotated;
+    private AtomicInteger rotations;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RefreshGraceCache(meterRegistry, TestConstants.REFRESH_GRACE_WINDOW,
+                TestConstants.REFRESH_GRACE_CACHE_SIZE);
+        rotated = new AuthResponse(TestConstants.NEW_ACCESS_TOKEN, TestConstants.NEW_REFRESH_TOKEN);
+        rotations = new AtomicInteger();
+    }
+
+    @Test
+    void getOrRotate_ShouldReturnRotatedPair_WhenOldTokenWasRotated() {
+        cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate);
+
+        assertEquals(rotated, cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate));
+        assertEquals(1, rotations.get());
+
+        cache.getOrRotate(TestConstants.NEW_REFRESH_TOKEN, this::rotate);
+        assertEquals(2, rotations.get());
+    }
+
+    @Test
+    void getOrRotate_ShouldRotateAgain_WhenGraceWindowIsZero() {
+        RefreshGraceCache disabled = new RefreshGraceCache(meterRegistry, Duration.ZERO,
+                TestConstants.REFRESH_GRACE_CACHE_SIZE);
+
+        disabled.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate);
+        disabled.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate);
+
+        assertEquals(2, rotations.get());
+    }
+
+    @Test
+    void getOrRotate_ShouldRotateAgain_WhenRotationFailed() {
+        assertThrows(InvalidRefreshTokenException.class, () -> cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, () -> {
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }));
+
+        assertEquals(rotated, cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate));
+        assertEquals(1, rotations.get());
+    }
+
+    @Test
+    void getOrRotate_ShouldRecordHitMetric_WhenTokenWasRotated() {
+        cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate);
+
+        cache.getOrRotate(TestConstants.REFRESH_TOKEN_VALUE, this::rotate);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RefreshGraceCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    private AuthResponse rotate() {
+        rotations.incrementAndGet();
+        return rotated;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mymicroservice.authservice.unit.cache;
+
+import com.mymicroservice.authservice.cache.TokenValidationCache;
+import com.mymicroservice.authservice.cache.VerifiedToken;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenValidationCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TokenValidationCache(meterRegistry, true, TestConstants.VALIDATION_CACHE_SIZE);
+    }
+
+    @Test
+    void get_ShouldReturnVerifiedToken_WhenTokenWasCached() {
+        VerifiedToken verifiedToken = verifiedToken(Instant.now().plusSeconds(60));
+        cache.put(TestConstants.VALID_TOKEN, verifiedToken);
+
+        assertEquals(verifiedToken, cache.get(TestConstants.VALID_TOKEN).orElseThrow());
+        assertTrue(cache.get(TestConstants.INVALID_TOKEN).isEmpty());
+    }
+
+    @Test
+    void put_ShouldSkipToken_WhenTokenAlreadyExpired() {
+        cache.put(TestConstants.VALID_TOKEN, verifiedToken(Instant.now().minusSeconds(1)));
+
+        assertTrue(cache.get(TestConstants.VALID_TOKEN).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldReturnEmpty_WhenCacheDisabled() {
+        TokenValidationCache disabled = new TokenValidationCache(meterRegistry, false, TestConstants.VALIDATION_CACHE_SIZE);
+        disabled.put(TestConstants.VALID_TOKEN, verifiedToken(Instant.now().plusSeconds(60)));
+
+        assertTrue(disabled.get(TestConstants.VALID_TOKEN).isEmpty());
+    }
+
+    @Test
+    void get_ShouldRecordHitAndMissMetrics_WhenCacheIsQueried() {
+        cache.put(TestConstants.VALID_TOKEN, verifiedToken(Instant.now().plusSeconds(60)));
+
+        cache.get(TestConstants.VALID_TOKEN);
+        cache.get(TestConstants.INVALID_TOKEN);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", TokenValidationCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", TokenValidationCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    private VerifiedToken verifiedToken(Instant expiresAt) {
+        return new VerifiedToken(TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER), expiresAt);
+    }
+}
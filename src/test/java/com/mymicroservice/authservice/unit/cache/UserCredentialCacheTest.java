@@ -0,0 +1,130 @@
+package com.mymicroservice.authservice.unit.cache;
+
+import com.mymicroservice.authservice.cache.CachedCredential;
+import com.mymicroservice.authservice.cache.UserCredentialCache;
+import com.mymicroservice.authservice.model.UserCredential;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.util.UserCredentialGenerator;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCredentialCacheTest {
+
+    @Mock
+    private UserCredentialRepository userCredentialRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCredentialCache cache;
+    private UserCredential testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCredentialCache(userCredentialRepository, meterRegistry, true,
+                TestConstants.CREDENTIAL_CACHE_TTL, TestConstants.CREDENTIAL_CACHE_SIZE);
+        testUser = UserCredentialGenerator.generateUserWithId();
+    }
+
+    @Test
+    void findByEmail_ShouldQueryRepositoryOnce_WhenSameEmailRequestedInDifferentCase() {
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+
+        CachedCredential first = cache.findByEmail(TestConstants.USER_EMAIL).orElseThrow();
+        CachedCredential second = cache.findByEmail(TestConstants.USER_EMAIL.toUpperCase(Locale.ROOT)).orElseThrow();
+
+        assertEquals(CachedCredential.of(testUser), first);
+        assertEquals(first, second);
+        verify(userCredentialRepository, times(1)).findByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void findByEmail_ShouldNotCacheUnknownEmail_WhenUserNotFound() {
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.empty());
+
+        assertTrue(cache.findByEmail(TestConstants.NON_EXISTING_EMAIL).isEmpty());
+        assertTrue(cache.findByEmail(TestConstants.NON_EXISTING_EMAIL).isEmpty());
+
+        verify(userCredentialRepository, times(2)).findByEmailIgnoreCase(TestConstants.NON_EXISTING_EMAIL);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evict_ShouldReloadFromRepository_WhenUserEvicted() {
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+        cache.findByEmail(TestConstants.USER_EMAIL);
+
+        cache.evict(TestConstants.USER_EMAIL.toUpperCase(Locale.ROOT));
+        cache.findByEmail(TestConstants.USER_EMAIL);
+
+        verify(userCredentialRepository, times(2)).findByEmailIgnoreCase(TestConstants.USER_EMAIL);
+    }
+
+    @Test
+    void evict_ShouldEvictAgainAfterCompletion_WhenCalledInTransaction() {
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(TestConstants.USER_EMAIL);
+            // a concurrent login reads the row before the delete commits
+            cache.findByEmail(TestConstants.USER_EMAIL);
+            assertEquals(1, cache.size());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void findByEmail_ShouldAlwaysQueryRepository_WhenCacheDisabled() {
+        UserCredentialCache disabled = new UserCredentialCache(userCredentialRepository, meterRegistry, false,
+                TestConstants.CREDENTIAL_CACHE_TTL, TestConstants.CREDENTIAL_CACHE_SIZE);
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+
+        disabled.findByEmail(TestConstants.USER_EMAIL);
+        disabled.findByEmail(TestConstants.USER_EMAIL);
+
+        verify(userCredentialRepository, times(2)).findByEmailIgnoreCase(TestConstants.USER_EMAIL);
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void toString_ShouldNotContainPasswordHash_WhenCredentialLogged() {
+        assertFalse(CachedCredential.of(testUser).toString().contains(testUser.getPassword()));
+    }
+
+    @Test
+    void findByEmail_ShouldRecordHitAndMissMetrics_WhenCacheIsQueried() {
+        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+
+        cache.findByEmail(TestConstants.USER_EMAIL);
+        cache.findByEmail(TestConstants.USER_EMAIL);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", UserCredentialCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", UserCredentialCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+}
@@ -4,23 +4,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mymicroservice.authservice.configuration.SecurityConfig;
 import com.mymicroservice.authservice.controller.AuthController;
 import com.mymicroservice.authservice.dto.AuthResponse;
+import com.mymicroservice.authservice.dto.TokenValidationBatchRequest;
+import com.mymicroservice.authservice.dto.TokenValidationResult;
+import com.mymicroservice.authservice.exception.TooManyRequestsException;
 import com.mymicroservice.authservice.filter.GatewayAuthFilter;
+import com.mymicroservice.authservice.security.LoginRateLimiter;
 import com.mymicroservice.authservice.service.AuthService;
 import com.mymicroservice.authservice.util.AuthRequestGenerator;
 import com.mymicroservice.authservice.util.data.TestConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +54,9 @@ class AuthControllerTest {
     @MockBean
     private GatewayAuthFilter gatewayAuthFilter;
 
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -69,6 +88,20 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.refreshToken").value(TestConstants.REFRESH_TOKEN));
     }
 
+    @Test
+    void login_ShouldReturnTooManyRequests_WhenRateLimitExceeded() throws Exception {
+        doThrow(new TooManyRequestsException("Too many login attempts, try again later", Duration.ofSeconds(12)))
+                .when(loginRateLimiter).acquire(anyString(), any(HttpServletRequest.class));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(AuthRequestGenerator.generateAuthRequest())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "12"));
+
+        verify(authService, never()).authenticate(any());
+    }
+
     @Test
     void refresh_ShouldReturnAuthResponse_WhenRefreshTokenIsValid() throws Exception {
         AuthResponse response = new AuthResponse(TestConstants.NEW_ACCESS_TOKEN, TestConstants.NEW_REFRESH_TOKEN);
@@ -83,6 +116,25 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.refreshToken").value(TestConstants.NEW_REFRESH_TOKEN));
     }
 
+    @Test
+    void logout_ShouldReturnNoContent_WhenRefreshTokenProvided() throws Exception {
+        mockMvc.perform(post("/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(AuthRequestGenerator.generateRefreshTokenRequest())))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(any());
+    }
+
+    @Test
+    void logoutAll_ShouldRevokeSessionsOfCurrentUser_WhenAuthenticated() throws Exception {
+        mockMvc.perform(post("/auth/logout/all")
+                        .principal(new UsernamePasswordAuthenticationToken(TestConstants.USER_EMAIL, null, List.of())))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logoutAll(TestConstants.USER_EMAIL);
+    }
+
     @Test
     void validate_ShouldReturnTrue_WhenTokenIsValid() throws Exception {
         when(authService.validateToken(TestConstants.VALID_TOKEN)).thenReturn(true);
@@ -102,4 +154,34 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
     }
+
+    @Test
+    void validateBatch_ShouldReturnResultPerToken_WhenRequestIsValid() throws Exception {
+        List<String> tokens = List.of(TestConstants.VALID_TOKEN, TestConstants.INVALID_TOKEN);
+        when(authService.validateTokens(tokens)).thenReturn(List.of(
+                TokenValidationResult.builder().valid(true).subject(TestConstants.USER_EMAIL)
+                        .roles(List.of(TestConstants.ROLE_USER)).build(),
+                TokenValidationResult.builder().valid(false).build()));
+
+        mockMvc.perform(post("/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenValidationBatchRequest(tokens))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valid").value(true))
+                .andExpect(jsonPath("$[0].subject").value(TestConstants.USER_EMAIL))
+                .andExpect(jsonPath("$[0].roles[0]").value(TestConstants.ROLE_USER))
+                .andExpect(jsonPath("$[1].valid").value(false));
+    }
+
+    @Test
+    void validateBatch_ShouldReturnBadRequest_WhenBatchIsTooLarge() throws Exception {
+        List<String> tokens = Collections.nCopies(TokenValidationBatchRequest.MAX_BATCH_SIZE + 1, TestConstants.VALID_TOKEN);
+
+        mockMvc.perform(post("/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenValidationBatchRequest(tokens))))
+                .andExpect(status().isBadRequest());
+
+        verify(authService, never()).validateTokens(any());
+    }
 }
@@ -0,0 +1,63 @@
+package com.mymicroservice.authservice.unit.controller;
+
+import com.mymicroservice.authservice.configuration.SecurityConfig;
+import com.mymicroservice.authservice.controller.JwksController;
+import com.mymicroservice.authservice.filter.GatewayAuthFilter;
+import com.mymicroservice.authservice.security.JwtKeyRing;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(JwksController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(SecurityConfig.class)
+class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtKeyRing jwtKeyRing;
+
+    @MockBean
+    private GatewayAuthFilter gatewayAuthFilter;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtKeyRing.getJwkSet()).thenReturn(new JwtKeyRing.JwkSet(TestConstants.JWKS_JSON, TestConstants.JWKS_ETAG));
+    }
+
+    @Test
+    void getJwks_ShouldReturnKeysWithCacheHeaders_WhenRequested() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, TestConstants.JWKS_ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=")))
+                .andExpect(jsonPath("$.keys[0].kid").value(TestConstants.JWKS_KEY_ID));
+    }
+
+    @Test
+    void getJwks_ShouldReturnNotModified_WhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, TestConstants.JWKS_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
@@ -13,17 +13,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -129,6 +134,75 @@ class GatewayAuthFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void doFilter_ShouldReuseAuthorityInstances_WhenKnownRoleInSeveralRequests() throws Exception {
+        String jwt = buildJwt(TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER));
+
+        GrantedAuthority first = authenticate(jwt).getAuthorities().iterator().next();
+        GrantedAuthority second = authenticate(jwt).getAuthorities().iterator().next();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void doFilter_ShouldMapUnknownRoleWithPrefix_WhenRoleIsNotInRoleEnum() throws Exception {
+        Authentication authentication = authenticate(buildJwt(TestConstants.USER_EMAIL,
+                List.of(TestConstants.ROLE_USER, TestConstants.UNKNOWN_ROLE)));
+
+        assertEquals(List.of("ROLE_" + TestConstants.ROLE_USER, "ROLE_" + TestConstants.UNKNOWN_ROLE),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void doFilter_ShouldSkipOtherClaims_WhenPayloadHasNestedValues() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("iss", "gateway");
+        payload.put("ctx", Map.of("roles", List.of("ADMIN"), "sub", "nested"));
+        payload.put("aud", List.of("a", "b"));
+        payload.put("sub", TestConstants.USER_EMAIL);
+        payload.put("exp", 1_700_000_000L);
+
+        Authentication authentication = authenticate(encodeJwt(payload));
+
+        assertEquals(TestConstants.USER_EMAIL, authentication.getPrincipal());
+        assertTrue(authentication.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void doFilter_ShouldNotSetSecurityContext_WhenSubjectIsObjectWithRoles() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", Map.of("roles", List.of("ADMIN")));
+        MockHttpServletRequest request = createGatewayRequest();
+        request.addHeader("Authorization", "Bearer " + encodeJwt(payload));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        gatewayAuthFilter.doFilter(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilter_ShouldSetSecurityContext_WhenTokenHasNoSignaturePart() throws Exception {
+        String jwt = buildJwt(TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER));
+
+        Authentication authentication = authenticate(jwt.substring(0, jwt.lastIndexOf('.')));
+
+        assertEquals(TestConstants.USER_EMAIL, authentication.getPrincipal());
+    }
+
+    private Authentication authenticate(String jwt) throws Exception {
+        MockHttpServletRequest request = createGatewayRequest();
+        request.addHeader("Authorization", "Bearer " + jwt);
+
+        gatewayAuthFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
     private MockHttpServletRequest createGatewayRequest() {
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(CommonConstants.INTERNAL_CALL_HEADER, TestConstants.INTERNAL_CALL_TRUE);
@@ -137,11 +211,14 @@ class GatewayAuthFilterTest {
     }
 
     private String buildJwt(String subject, List<String> roles) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
         Map<String, Object> payload = new HashMap<>();
         payload.put("sub", subject);
         payload.put("roles", roles);
-        String payloadJson = mapper.writeValueAsString(payload);
+        return encodeJwt(payload);
+    }
+
+    private String encodeJwt(Map<String, Object> payload) throws Exception {
+        String payloadJson = new ObjectMapper().writeValueAsString(payload);
         String encodedPayload = Base64.getUrlEncoder().withoutPadding()
                 .encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
         return "header." + encodedPayload + ".signature";
@@ -0,0 +1,144 @@
+package com.mymicroservice.authservice.unit.metrics;
+
+import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import com.mymicroservice.authservice.tracing.SpanRecordingHandler;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthMetrics authMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        authMetrics = new AuthMetrics(meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    @Test
+    void operation_ShouldRecordSuccess_WhenActionCompletes() {
+        String result = authMetrics.operation(AuthMetrics.OPERATION_REGISTER, () -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(1, timer(AuthMetrics.OPERATION_TIMER, "operation",
+                AuthMetrics.OPERATION_REGISTER, AuthMetrics.OUTCOME_SUCCESS).count());
+    }
+
+    @Test
+    void operation_ShouldRecordOutcomeAndRethrow_WhenActionFails() {
+        InvalidCredentialsException failure = new InvalidCredentialsException("Invalid email or password");
+
+        InvalidCredentialsException thrown = assertThrows(InvalidCredentialsException.class,
+                () -> authMetrics.operation(AuthMetrics.OPERATION_AUTHENTICATE, () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, timer(AuthMetrics.OPERATION_TIMER, "operation",
+                AuthMetrics.OPERATION_AUTHENTICATE, AuthMetrics.OUTCOME_BAD_CREDENTIALS).count());
+    }
+
+    @Test
+    void stage_ShouldPublishPercentileHistogram_WhenRecorded() {
+        PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+        new AuthMetrics(prometheusRegistry, ObservationRegistry.NOOP).stage(AuthMetrics.STAGE_BCRYPT, () -> true);
+
+        assertTrue(prometheusRegistry.scrape().contains("auth_stage_seconds_bucket"));
+    }
+
+    @Test
+    void operation_ShouldUseResultOutcome_WhenActionReturns() {
+        boolean valid = authMetrics.operation(AuthMetrics.OPERATION_VALIDATE, () -> false,
+                result -> result ? AuthMetrics.OUTCOME_SUCCESS : AuthMetrics.OUTCOME_INVALID);
+
+        assertFalse(valid);
+        assertEquals(1, timer(AuthMetrics.OPERATION_TIMER, "operation",
+                AuthMetrics.OPERATION_VALIDATE, AuthMetrics.OUTCOME_INVALID).count());
+    }
+
+    @Test
+    void stage_ShouldTagEnclosingOperation_WhenCalledInsideOperation() {
+        authMetrics.operation(AuthMetrics.OPERATION_AUTHENTICATE, () -> authMetrics.stage(AuthMetrics.STAGE_BCRYPT, () -> true));
+        authMetrics.recordStage(AuthMetrics.STAGE_DB, 1_000, AuthMetrics.OUTCOME_SUCCESS);
+
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("operation", AuthMetrics.OPERATION_AUTHENTICATE, "stage", AuthMetrics.STAGE_BCRYPT)
+                .timer().count());
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("operation", AuthMetrics.OPERATION_NONE, "stage", AuthMetrics.STAGE_DB)
+                .timer().count());
+    }
+
+    @Test
+    void stage_ShouldRecordNestedSpan_WhenCalledInsideOperation() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter(TestConstants.TRACING_MAX_SPANS);
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new SpanRecordingHandler(exporter));
+        AuthMetrics tracedMetrics = new AuthMetrics(meterRegistry, observationRegistry);
+
+        tracedMetrics.operation(AuthMetrics.OPERATION_AUTHENTICATE,
+                () -> tracedMetrics.stage(AuthMetrics.STAGE_BCRYPT, () -> true));
+
+        List<SpanRecord> spans = exporter.spans();
+        assertEquals(2, spans.size());
+        SpanRecord stage = spans.get(0);
+        SpanRecord operation = spans.get(1);
+        assertEquals(AuthMetrics.STAGE_BCRYPT, stage.name());
+        assertEquals(AuthSpans.LAYER_CRYPTO, stage.layer());
+        assertEquals(AuthMetrics.OPERATION_AUTHENTICATE, operation.name());
+        assertEquals(AuthSpans.LAYER_SERVICE, operation.layer());
+        assertEquals(operation.spanId(), stage.parentSpanId());
+        assertEquals(AuthMetrics.OUTCOME_SUCCESS, operation.tags().get("outcome"));
+    }
+
+    @Test
+    void outcomeOf_ShouldUseJwtCause_WhenRefreshTokenRejected() {
+        ExpiredJwtException expired = new ExpiredJwtException(null, null, "expired");
+        MalformedJwtException malformed = new MalformedJwtException("malformed");
+
+        assertEquals(AuthMetrics.OUTCOME_EXPIRED,
+                AuthMetrics.outcomeOf(new InvalidRefreshTokenException("Invalid refresh token", expired)));
+        assertEquals(AuthMetrics.OUTCOME_MALFORMED,
+                AuthMetrics.outcomeOf(new InvalidRefreshTokenException("Invalid refresh token", malformed)));
+        assertEquals(AuthMetrics.OUTCOME_INVALID,
+                AuthMetrics.outcomeOf(new InvalidRefreshTokenException("Refresh token has been revoked")));
+    }
+
+    @Test
+    void outcomeOf_ShouldMapServiceExceptions_WhenNoJwtCause() {
+        assertEquals(AuthMetrics.OUTCOME_REJECTED,
+                AuthMetrics.outcomeOf(new IllegalArgumentException("User already exists")));
+        assertEquals(AuthMetrics.OUTCOME_NOT_FOUND,
+                AuthMetrics.outcomeOf(new UserCredentialNotFoundException("UserCredential not found")));
+        assertEquals(AuthMetrics.OUTCOME_ERROR,
+                AuthMetrics.outcomeOf(new IllegalStateException("boom")));
+    }
+
+    private Timer timer(String name, String kindTag, String kind, String outcome) {
+        return meterRegistry.get(name).tags(kindTag, kind, "outcome", outcome).timer();
+    }
+}
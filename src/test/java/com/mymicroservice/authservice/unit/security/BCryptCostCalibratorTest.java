@@ -0,0 +1,50 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.mymicroservice.authservice.security.BCryptCostCalibrator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptCostCalibratorTest {
+
+    // cost 10 takes 64 ms, each step doubles it
+    private static long verifyNanos(int cost) {
+        return Duration.ofMillis(64).toNanos() << (cost - 10);
+    }
+
+    @Test
+    void calibrate_ShouldPickHighestCostWithinTarget_WhenTimesDoublePerCost() {
+        List<Integer> measured = new ArrayList<>();
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(cost -> {
+            measured.add(cost);
+            return verifyNanos(cost);
+        });
+
+        assertEquals(12, calibrator.calibrate(Duration.ofMillis(300)));
+        assertEquals(List.of(11, 12, 13), measured);
+    }
+
+    @Test
+    void calibrate_ShouldKeepMinimumCost_WhenMachineIsTooSlow() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(BCryptCostCalibratorTest::verifyNanos);
+
+        assertEquals(10, calibrator.calibrate(Duration.ofMillis(10)));
+    }
+
+    @Test
+    void calibrate_ShouldStopAtMaximumCost_WhenMachineIsFast() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(cost -> 1L);
+
+        assertEquals(16, calibrator.calibrate(Duration.ofMillis(250)));
+    }
+
+    @Test
+    void medianVerifyNanos_ShouldMeasurePositiveTime_WhenCostIsLow() {
+        assertTrue(BCryptCostCalibrator.medianVerifyNanos(4, 3) > 0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
+import com.mymicroservice.authservice.security.BoundedPasswordEncoder;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegate_WhenPoolHasCapacity() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(TestConstants.USER_PASSWORD)).thenReturn(TestConstants.ENCODED_PASSWORD);
+        when(delegate.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD)).thenReturn(true);
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5));
+
+        assertEquals(TestConstants.ENCODED_PASSWORD, encoder.encode(TestConstants.USER_PASSWORD));
+        assertTrue(encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+        assertFalse(encoder.matches(TestConstants.LOGIN_PASSWORD, TestConstants.ENCODED_PASSWORD));
+    }
+
+    @Test
+    void matches_ShouldRejectImmediately_WhenPoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture.runAsync(() -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+        CompletableFuture.runAsync(() -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+        waitUntil(() -> encoder.getActiveCount() == 1 && encoder.getQueueSize() == 1);
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+    }
+
+    @Test
+    void bindTo_ShouldPublishQueueAndActiveGauges_WhenPoolIsBusy() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 1, Duration.ofSeconds(5));
+        encoder.bindTo(meterRegistry);
+
+        CompletableFuture.runAsync(() -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+        CompletableFuture.runAsync(() -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+
+        waitUntil(() -> meterRegistry.get("auth.hashing.active").gauge().value() == 1
+                && meterRegistry.get("auth.hashing.queue.size").gauge().value() == 1);
+    }
+
+    @Test
+    void matches_ShouldFail_WhenHashingTakesLongerThanTimeout() {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 1, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> encoder.matches(TestConstants.USER_PASSWORD, TestConstants.ENCODED_PASSWORD));
+    }
+
+    private PasswordEncoder blockingDelegate() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        return delegate;
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,169 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.security.JwtAlgorithm;
+import com.mymicroservice.authservice.security.JwtKeyRing;
+import com.mymicroservice.authservice.util.JwtKeyRingGenerator;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeyRingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path keyDir;
+
+    @Test
+    void getJwkSet_ShouldPublishActiveKey_WhenRingLoaded() throws Exception {
+        JwtKeyRing keyRing = JwtKeyRingGenerator.generateKeyRing();
+
+        JsonNode keys = objectMapper.readTree(keyRing.getJwkSet().json()).get("keys");
+
+        assertEquals(1, keys.size());
+        assertEquals(keyRing.getSigningKey().keyId(), keys.get(0).get("kid").asText());
+        assertEquals("RSA", keys.get(0).get("kty").asText());
+        assertEquals("RS256", keys.get(0).get("alg").asText());
+        assertEquals("sig", keys.get(0).get("use").asText());
+    }
+
+    @Test
+    void getJwkSet_ShouldIncludePublishedKeys_WhenConfigured() throws Exception {
+        JwtKeyRing keyRing = JwtKeyRingGenerator.generateKeyRing(JwtAlgorithm.RS256,
+                TestConstants.RSA_PRIVATE_KEY_LOCATION, TestConstants.RSA_PUBLIC_KEY_LOCATION,
+                List.of(TestConstants.ES256_PUBLIC_KEY_LOCATION, TestConstants.ED25519_PUBLIC_KEY_LOCATION));
+
+        JsonNode keys = objectMapper.readTree(keyRing.getJwkSet().json()).get("keys");
+
+        assertEquals(List.of("RSA", "EC", "OKP"), keyTypes(keys));
+    }
+
+    @Test
+    void locate_ShouldReturnPublishedKey_WhenTokenSignedWithNextKey() {
+        JwtKeyRing nextKeyRing = JwtKeyRingGenerator.generateKeyRing(JwtAlgorithm.ES256,
+                TestConstants.ES256_PRIVATE_KEY_LOCATION, TestConstants.ES256_PUBLIC_KEY_LOCATION, List.of());
+        JwtKeyRing keyRing = JwtKeyRingGenerator.generateKeyRing(JwtAlgorithm.RS256,
+                TestConstants.RSA_PRIVATE_KEY_LOCATION, TestConstants.RSA_PUBLIC_KEY_LOCATION,
+                List.of(TestConstants.ES256_PUBLIC_KEY_LOCATION));
+
+        String token = sign(nextKeyRing);
+
+        assertEquals(TestConstants.USER_EMAIL, parse(keyRing, token));
+    }
+
+    @Test
+    void reload_ShouldKeepRetiredKeyForOverlap_WhenKeyFilesReplaced() throws Exception {
+        copyKeys(TestConstants.RSA_PRIVATE_KEY_LOCATION, TestConstants.RSA_PUBLIC_KEY_LOCATION);
+        JwtKeyRing keyRing = fileKeyRing(JwtAlgorithm.RS256, TestConstants.KEY_OVERLAP);
+        String oldKeyId = keyRing.getSigningKey().keyId();
+        String oldEtag = keyRing.getJwkSet().etag();
+        String oldToken = sign(keyRing);
+
+        copyKeys(TestConstants.ROTATED_PRIVATE_KEY_LOCATION, TestConstants.ROTATED_PUBLIC_KEY_LOCATION);
+        keyRing.reload();
+
+        assertNotEquals(oldKeyId, keyRing.getSigningKey().keyId());
+        assertNotEquals(oldEtag, keyRing.getJwkSet().etag());
+        assertEquals(2, objectMapper.readTree(keyRing.getJwkSet().json()).get("keys").size());
+        assertEquals(TestConstants.USER_EMAIL, parse(keyRing, oldToken));
+        assertEquals(TestConstants.USER_EMAIL, parse(keyRing, sign(keyRing)));
+    }
+
+    @Test
+    void reload_ShouldDropRetiredKey_WhenOverlapEnded() throws Exception {
+        copyKeys(TestConstants.RSA_PRIVATE_KEY_LOCATION, TestConstants.RSA_PUBLIC_KEY_LOCATION);
+        JwtKeyRing keyRing = fileKeyRing(JwtAlgorithm.RS256, Duration.ZERO);
+        String oldToken = sign(keyRing);
+
+        copyKeys(TestConstants.ROTATED_PRIVATE_KEY_LOCATION, TestConstants.ROTATED_PUBLIC_KEY_LOCATION);
+        keyRing.reload();
+        keyRing.reload();
+
+        assertEquals(1, objectMapper.readTree(keyRing.getJwkSet().json()).get("keys").size());
+        assertThrows(JwtException.class, () -> parse(keyRing, oldToken));
+    }
+
+    @Test
+    void reload_ShouldKeepEtag_WhenKeysUnchanged() {
+        JwtKeyRing keyRing = JwtKeyRingGenerator.generateKeyRing();
+        String etag = keyRing.getJwkSet().etag();
+
+        keyRing.reload();
+
+        assertEquals(etag, keyRing.getJwkSet().etag());
+    }
+
+    @Test
+    void locate_ShouldThrow_WhenKeyIdIsUnknown() {
+        JwtKeyRing keyRing = JwtKeyRingGenerator.generateKeyRing();
+        Instant now = Instant.now();
+        String token = Jwts.builder()
+                .header().keyId(TestConstants.UNKNOWN_KEY_ID).and()
+                .subject(TestConstants.USER_EMAIL)
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(keyRing.getSigningKey().privateKey(), Jwts.SIG.RS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> parse(keyRing, token));
+    }
+
+    private JwtKeyRing fileKeyRing(JwtAlgorithm algorithm, Duration overlap) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm,
+                keyDir.resolve("private.pem").toUri().toString(),
+                keyDir.resolve("public.pem").toUri().toString(),
+                List.of(), overlap, objectMapper);
+        keyRing.init();
+        return keyRing;
+    }
+
+    private void copyKeys(String privateKeyLocation, String publicKeyLocation) throws Exception {
+        copy(privateKeyLocation, keyDir.resolve("private.pem"));
+        copy(publicKeyLocation, keyDir.resolve("public.pem"));
+    }
+
+    private void copy(String classpathLocation, Path target) throws Exception {
+        try (InputStream inputStream = new ClassPathResource(classpathLocation).getInputStream()) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String sign(JwtKeyRing keyRing) {
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
+                .subject(TestConstants.USER_EMAIL)
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
+                .compact();
+    }
+
+    private String parse(JwtKeyRing keyRing, String token) {
+        return Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private List<String> keyTypes(JsonNode keys) {
+        List<String> types = new ArrayList<>();
+        keys.forEach(key -> types.add(key.get("kty").asText()));
+        return types;
+    }
+}
@@ -0,0 +1,148 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.mymicroservice.authservice.exception.TooManyRequestsException;
+import com.mymicroservice.authservice.security.LoginRateLimiter;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    private static final int LARGE_CAPACITY = 1000;
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void acquire_ShouldRejectWithRetryAfter_WhenEmailBucketIsEmpty() {
+        LoginRateLimiter limiter = limiter(LARGE_CAPACITY, TestConstants.RATE_LIMIT_CAPACITY, LARGE_CAPACITY, true);
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            // the email is matched case-insensitively
+            limiter.acquire(i % 2 == 0 ? TestConstants.USER_EMAIL : TestConstants.USER_EMAIL.toUpperCase(Locale.ROOT),
+                    TestConstants.CLIENT_IP);
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.OTHER_CLIENT_IP));
+
+        assertTrue(exception.getRetryAfter().isPositive());
+        assertDoesNotThrow(() -> limiter.acquire(TestConstants.LOGIN_EMAIL, TestConstants.CLIENT_IP));
+        assertEquals(1.0, meterRegistry.get("auth.login.rate.limited").tag("limit", "email").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldNotConsumeEmailBucket_WhenIpBucketIsEmpty() {
+        LoginRateLimiter limiter = limiter(1, TestConstants.RATE_LIMIT_CAPACITY, LARGE_CAPACITY, true);
+        limiter.acquire(TestConstants.LOGIN_EMAIL, TestConstants.CLIENT_IP);
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertThrows(TooManyRequestsException.class,
+                    () -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP));
+        }
+
+        assertDoesNotThrow(() -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.OTHER_CLIENT_IP));
+        assertEquals(TestConstants.RATE_LIMIT_CAPACITY,
+                meterRegistry.get("auth.login.rate.limited").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldNotConsumeIpBucket_WhenEmailBucketIsEmpty() {
+        LoginRateLimiter limiter = limiter(2, 1, LARGE_CAPACITY, true);
+        limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP);
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertThrows(TooManyRequestsException.class,
+                    () -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP));
+        }
+
+        assertDoesNotThrow(() -> limiter.acquire(TestConstants.LOGIN_EMAIL, TestConstants.CLIENT_IP));
+    }
+
+    @Test
+    void acquire_ShouldNotConsumeIpAndEmailBuckets_WhenGlobalBucketIsEmpty() {
+        LoginRateLimiter limiter = limiter(1, 1, 1, true);
+        limiter.acquire(TestConstants.LOGIN_EMAIL, TestConstants.OTHER_CLIENT_IP);
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertThrows(TooManyRequestsException.class,
+                    () -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP));
+        }
+
+        assertEquals(TestConstants.RATE_LIMIT_CAPACITY,
+                meterRegistry.get("auth.login.rate.limited").tag("limit", "global").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rate.limited").tag("limit", "ip").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rate.limited").tag("limit", "email").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldReject_WhenGlobalBucketIsEmpty() {
+        LoginRateLimiter limiter = limiter(LARGE_CAPACITY, LARGE_CAPACITY, 1, true);
+        limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire(TestConstants.LOGIN_EMAIL, TestConstants.OTHER_CLIENT_IP));
+        assertEquals(1.0, meterRegistry.get("auth.login.rate.limited").tag("limit", "global").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldUseLastForwardedAddress_WhenRequestComesFromTrustedProxy() {
+        LoginRateLimiter limiter = limiter(1, LARGE_CAPACITY, LARGE_CAPACITY, true);
+        MockHttpServletRequest first = request(TestConstants.GATEWAY_IP,
+                TestConstants.OTHER_CLIENT_IP + ", " + TestConstants.CLIENT_IP);
+        MockHttpServletRequest spoofed = request(TestConstants.GATEWAY_IP, "10.0.0.1, " + TestConstants.CLIENT_IP);
+        MockHttpServletRequest otherClient = request(TestConstants.GATEWAY_IP, TestConstants.OTHER_CLIENT_IP);
+
+        limiter.acquire(TestConstants.USER_EMAIL, first);
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire(TestConstants.LOGIN_EMAIL, spoofed));
+        assertDoesNotThrow(() -> limiter.acquire(TestConstants.LOGIN_EMAIL, otherClient));
+    }
+
+    @Test
+    void acquire_ShouldIgnoreForwardedHeader_WhenRequestDoesNotComeFromTrustedProxy() {
+        LoginRateLimiter limiter = limiter(1, LARGE_CAPACITY, LARGE_CAPACITY, true);
+        limiter.acquire(TestConstants.USER_EMAIL, request(TestConstants.CLIENT_IP, TestConstants.OTHER_CLIENT_IP));
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire(TestConstants.LOGIN_EMAIL,
+                request(TestConstants.CLIENT_IP, "10.0.0.1")));
+    }
+
+    @Test
+    void acquire_ShouldNeverReject_WhenDisabled() {
+        LoginRateLimiter limiter = limiter(1, 1, 1, false);
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertDoesNotThrow(() -> limiter.acquire(TestConstants.USER_EMAIL, TestConstants.CLIENT_IP));
+        }
+    }
+
+    private LoginRateLimiter limiter(int ipCapacity, int emailCapacity, int globalCapacity, boolean enabled) {
+        return new LoginRateLimiter(meterRegistry, enabled,
+                ipCapacity, TestConstants.RATE_LIMIT_REFILL_PERIOD,
+                emailCapacity, TestConstants.RATE_LIMIT_REFILL_PERIOD,
+                globalCapacity, TestConstants.RATE_LIMIT_REFILL_PERIOD,
+                TestConstants.RATE_LIMIT_MAX_KEYS, FORWARDED_FOR, List.of(TestConstants.GATEWAY_IP));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(FORWARDED_FOR, forwardedFor);
+        return request;
+    }
+}
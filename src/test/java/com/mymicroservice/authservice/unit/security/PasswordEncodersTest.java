@@ -0,0 +1,52 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.mymicroservice.authservice.security.PasswordEncoders;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordEncodersTest {
+
+    private final PasswordEncoder encoder = bcrypt(TestConstants.BCRYPT_TEST_STRENGTH + 1);
+
+    @Test
+    void encode_ShouldPrefixHashWithEncoderId_WhenBcryptSelected() {
+        String hash = encoder.encode(TestConstants.USER_PASSWORD);
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches(TestConstants.USER_PASSWORD, hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void matches_ShouldAcceptLegacyHash_WhenHashHasNoPrefix() {
+        String legacyHash = new BCryptPasswordEncoder(TestConstants.BCRYPT_TEST_STRENGTH).encode(TestConstants.USER_PASSWORD);
+
+        assertTrue(encoder.matches(TestConstants.USER_PASSWORD, legacyHash));
+        assertFalse(encoder.matches(TestConstants.LOGIN_PASSWORD, legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldReturnTrue_WhenHashHasLowerCost() {
+        String weakerHash = bcrypt(TestConstants.BCRYPT_TEST_STRENGTH).encode(TestConstants.USER_PASSWORD);
+
+        assertTrue(encoder.matches(TestConstants.USER_PASSWORD, weakerHash));
+        assertTrue(encoder.upgradeEncoding(weakerHash));
+    }
+
+    @Test
+    void delegating_ShouldThrowException_WhenEncoderIsNotAvailable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordEncoders.delegating("scrypt", TestConstants.BCRYPT_TEST_STRENGTH, 19456, 2, 1));
+    }
+
+    private static PasswordEncoder bcrypt(int strength) {
+        return PasswordEncoders.delegating(PasswordEncoders.BCRYPT, strength, 19456, 2, 1);
+    }
+}
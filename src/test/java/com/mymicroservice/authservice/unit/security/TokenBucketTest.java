@@ -0,0 +1,73 @@
+package com.mymicroservice.authservice.unit.security;
+
+import com.mymicroservice.authservice.security.TokenBucket;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long TOKEN_INTERVAL =
+            TestConstants.RATE_LIMIT_REFILL_PERIOD.toNanos() / TestConstants.RATE_LIMIT_CAPACITY;
+
+    @Test
+    void tryConsume_ShouldAllowBurstUpToCapacity_WhenBucketIsFull() {
+        TokenBucket bucket = new TokenBucket(TestConstants.RATE_LIMIT_CAPACITY, TestConstants.RATE_LIMIT_REFILL_PERIOD);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertEquals(0, bucket.tryConsume(now));
+        }
+
+        assertEquals(TOKEN_INTERVAL, bucket.tryConsume(now));
+    }
+
+    @Test
+    void tryConsume_ShouldAllowOneMore_WhenOneTokenIntervalPassed() {
+        TokenBucket bucket = new TokenBucket(TestConstants.RATE_LIMIT_CAPACITY, TestConstants.RATE_LIMIT_REFILL_PERIOD);
+        long now = System.nanoTime();
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            bucket.tryConsume(now);
+        }
+
+        assertEquals(0, bucket.tryConsume(now + TOKEN_INTERVAL));
+        assertTrue(bucket.tryConsume(now + TOKEN_INTERVAL) > 0);
+    }
+
+    @Test
+    void tryConsume_ShouldNotAccumulateAboveCapacity_WhenBucketIdleForLong() {
+        TokenBucket bucket = new TokenBucket(TestConstants.RATE_LIMIT_CAPACITY, TestConstants.RATE_LIMIT_REFILL_PERIOD);
+        long later = System.nanoTime() + Duration.ofHours(1).toNanos();
+
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            assertEquals(0, bucket.tryConsume(later));
+        }
+
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void refund_ShouldReturnToken_WhenTokenWasNotUsed() {
+        TokenBucket bucket = new TokenBucket(TestConstants.RATE_LIMIT_CAPACITY, TestConstants.RATE_LIMIT_REFILL_PERIOD);
+        long now = System.nanoTime();
+        for (int i = 0; i < TestConstants.RATE_LIMIT_CAPACITY; i++) {
+            bucket.tryConsume(now);
+        }
+
+        bucket.refund();
+
+        assertEquals(0, bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now) > 0);
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenCapacityIsZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenBucket(0, TestConstants.RATE_LIMIT_REFILL_PERIOD));
+    }
+}
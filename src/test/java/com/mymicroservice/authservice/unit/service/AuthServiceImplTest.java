@@ -3,27 +3,56 @@ package com.mymicroservice.authservice.unit.service;
 import com.mymicroservice.authservice.dto.AuthRequest;
 import com.mymicroservice.authservice.dto.AuthResponse;
 import com.mymicroservice.authservice.dto.RefreshTokenRequest;
+import com.mymicroservice.authservice.dto.TokenValidationResult;
 import com.mymicroservice.authservice.dto.UserRegistrationRequest;
+import com.mymicroservice.authservice.cache.CachedCredential;
+import com.mymicroservice.authservice.cache.KnownEmailFilter;
+import com.mymicroservice.authservice.cache.RefreshGraceCache;
+import com.mymicroservice.authservice.cache.UserCredentialCache;
+import com.mymicroservice.authservice.cache.VerifiedToken;
 import com.mymicroservice.authservice.exception.InvalidCredentialsException;
+import com.mymicroservice.authservice.exception.InvalidRefreshTokenException;
+import com.mymicroservice.authservice.exception.PasswordHashingUnavailableException;
 import com.mymicroservice.authservice.exception.UserCredentialNotFoundException;
 import com.mymicroservice.authservice.mapper.UserCredentialMapper;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.model.RefreshToken;
 import com.mymicroservice.authservice.model.Role;
 import com.mymicroservice.authservice.model.UserCredential;
 import com.mymicroservice.authservice.repository.UserCredentialRepository;
 import com.mymicroservice.authservice.service.JwtService;
 import com.mymicroservice.authservice.service.impl.AuthServiceImpl;
+import com.mymicroservice.authservice.util.RefreshTokenGenerator;
 import com.mymicroservice.authservice.util.UserCredentialGenerator;
 import com.mymicroservice.authservice.util.data.TestConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -32,8 +61,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -46,12 +77,27 @@ class AuthServiceImplTest {
     @InjectMocks
     private AuthServiceImpl authService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private UserCredentialRepository userCredentialRepository;
     @Mock
+    private UserCredentialCache userCredentialCache;
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+    @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
     private JwtService jwtService;
+    @Spy
+    private RefreshGraceCache refreshGraceCache = new RefreshGraceCache(meterRegistry, TestConstants.REFRESH_GRACE_WINDOW,
+            TestConstants.REFRESH_GRACE_CACHE_SIZE);
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry, ObservationRegistry.NOOP);
+    @Spy
+    private Executor tokenValidationExecutor = new SyncTaskExecutor();
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     private UserCredential testUser;
     private UserRegistrationRequest registrationRequest;
@@ -69,6 +115,10 @@ class AuthServiceImplTest {
 
         refreshTokenRequest = new RefreshTokenRequest();
         refreshTokenRequest.setRefreshToken(TestConstants.MOCK_REFRESH_TOKEN);
+
+        lenient().when(knownEmailFilter.mightExist(anyString())).thenReturn(true);
+        lenient().when(userCredentialRepository.findCurrentForShare(anyLong(), anyString(), any(Role.class)))
+                .thenReturn(Optional.of(testUser));
     }
 
     @Test
@@ -77,7 +127,7 @@ class AuthServiceImplTest {
         when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.USER_PASSWORD);
         when(userCredentialRepository.save(any(UserCredential.class))).thenReturn(testUser);
         when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
-        when(jwtService.generateRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
 
         AuthResponse response = authService.register(registrationRequest);
 
@@ -89,8 +139,23 @@ class AuthServiceImplTest {
         verify(userCredentialRepository).save(any(UserCredential.class));
         verify(passwordEncoder).encode(registrationRequest.getPassword());
         verify(jwtService).generateAccessToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).generateRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).saveRefreshToken(TestConstants.MOCK_REFRESH_TOKEN);
+        verify(jwtService).issueRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
+        verify(transactionTemplate).execute(any());
+        verify(userCredentialCache).evict(registrationRequest.getEmail());
+        verify(knownEmailFilter).add(testUser.getEmail());
+    }
+
+    @Test
+    void register_ShouldSkipEmailLookup_WhenEmailFilterKnowsEmailIsNew() {
+        when(knownEmailFilter.mightExist(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+
+        assertNotNull(authService.register(registrationRequest));
+
+        verify(userCredentialRepository, never()).findByEmailIgnoreCase(anyString());
+        verify(userCredentialRepository).save(any(UserCredential.class));
     }
 
     @Test
@@ -111,7 +176,7 @@ class AuthServiceImplTest {
         when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
         when(userCredentialRepository.save(any(UserCredential.class))).thenReturn(testUser);
         when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
-        when(jwtService.generateRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
 
         AuthResponse response = authService.register(registrationRequest);
 
@@ -127,14 +192,14 @@ class AuthServiceImplTest {
         when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
         when(userCredentialRepository.save(any(UserCredential.class))).thenReturn(testUser);
         when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
-        when(jwtService.generateRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
 
         AuthResponse response = authService.register(registrationRequest);
 
         assertNotNull(response);
         verify(userCredentialRepository).save(argThat(user -> user.getRole() == Role.USER));
         verify(jwtService).generateAccessToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).generateRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
+        verify(jwtService).issueRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
     }
 
     @Test
@@ -151,10 +216,10 @@ class AuthServiceImplTest {
 
     @Test
     void authenticate_ShouldReturnAuthResponse_WhenCredentialsAreValid() {
-        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
         when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
-        when(jwtService.generateRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
 
         AuthResponse response = authService.authenticate(authRequest);
 
@@ -162,38 +227,168 @@ class AuthServiceImplTest {
         assertEquals(TestConstants.MOCK_ACCESS_TOKEN, response.getAccessToken());
         assertEquals(TestConstants.MOCK_REFRESH_TOKEN, response.getRefreshToken());
 
-        verify(userCredentialRepository).findByEmailIgnoreCase(authRequest.getEmail());
+        verify(userCredentialCache).findByEmail(authRequest.getEmail());
+        verify(userCredentialRepository, never()).findByEmailIgnoreCase(anyString());
         verify(passwordEncoder).matches(authRequest.getPassword(), testUser.getPassword());
         verify(jwtService).generateAccessToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).generateRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).saveRefreshToken(TestConstants.MOCK_REFRESH_TOKEN);
+        verify(jwtService).issueRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
     }
 
     @Test
-    void authenticate_ShouldThrowException_WhenEmailInvalid() {
-        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.empty());
+    void authenticate_ShouldCheckDummyHash_WhenEmailInvalid() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
 
         assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
-        verify(userCredentialRepository).findByEmailIgnoreCase(authRequest.getEmail());
-        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userCredentialCache).findByEmail(authRequest.getEmail());
+        verify(passwordEncoder).matches(authRequest.getPassword(), TestConstants.ENCODED_PASSWORD);
+        verify(jwtService, never()).issueRefreshToken(anyString(), anyList());
+    }
+
+    @Test
+    void authenticate_ShouldRejectWithoutLookup_WhenEmailFilterKnowsEmailIsUnknown() {
+        when(knownEmailFilter.mightExist(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+
+        verify(userCredentialCache, never()).findByEmail(anyString());
+        verify(passwordEncoder, times(2)).matches(authRequest.getPassword(), TestConstants.ENCODED_PASSWORD);
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void authenticate_ShouldReuseDummyHash_WhenUnknownEmailRetried() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+
+        verify(passwordEncoder, times(2)).matches(authRequest.getPassword(), TestConstants.ENCODED_PASSWORD);
+        verify(passwordEncoder, times(1)).encode(anyString());
     }
 
     @Test
     void authenticate_ShouldThrowException_WhenPasswordInvalid() {
-        when(userCredentialRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(testUser));
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
 
         assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
-        verify(userCredentialRepository).findByEmailIgnoreCase(authRequest.getEmail());
+        verify(userCredentialCache).findByEmail(authRequest.getEmail());
         verify(passwordEncoder).matches(authRequest.getPassword(), testUser.getPassword());
+        verify(jwtService, never()).issueRefreshToken(anyString(), anyList());
+    }
+
+    @Test
+    void authenticate_ShouldRejectWithoutIssuingToken_WhenCachedAccountWasDeletedOnOtherInstance() {
+        when(userCredentialCache.findByEmail(anyString()))
+                .thenReturn(Optional.of(CachedCredential.of(testUser)), Optional.empty());
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn(TestConstants.ENCODED_PASSWORD);
+        when(userCredentialRepository.findCurrentForShare(testUser.getUserId(), testUser.getPassword(), testUser.getRole()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+
+        verify(userCredentialCache).evict(authRequest.getEmail());
+        verify(jwtService, never()).issueRefreshToken(anyString(), anyList());
+        verify(jwtService, never()).generateAccessToken(anyString(), anyList());
+    }
+
+    @Test
+    void authenticate_ShouldCheckAgainWithCurrentCredential_WhenCachedHashIsStale() {
+        CachedCredential current = new CachedCredential(testUser.getUserId(), testUser.getEmail(),
+                TestConstants.UPGRADED_PASSWORD_HASH, testUser.getRole());
+        when(userCredentialCache.findByEmail(anyString()))
+                .thenReturn(Optional.of(CachedCredential.of(testUser)), Optional.of(current));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(userCredentialRepository.findCurrentForShare(testUser.getUserId(), testUser.getPassword(), testUser.getRole()))
+                .thenReturn(Optional.empty());
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+
+        AuthResponse response = authService.authenticate(authRequest);
+
+        assertEquals(TestConstants.MOCK_REFRESH_TOKEN, response.getRefreshToken());
+        verify(userCredentialCache).evict(authRequest.getEmail());
+        verify(passwordEncoder).matches(authRequest.getPassword(), TestConstants.UPGRADED_PASSWORD_HASH);
+        verify(jwtService, times(1)).issueRefreshToken(testUser.getEmail(), List.of(TestConstants.ROLE_USER));
+    }
+
+    @Test
+    void authenticate_ShouldRehashPassword_WhenHashUsesOutdatedParameters() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(authRequest.getPassword())).thenReturn(TestConstants.UPGRADED_PASSWORD_HASH);
+        when(userCredentialRepository.updatePasswordHash(anyLong(), anyString(), anyString())).thenReturn(1);
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+
+        AuthResponse response = authService.authenticate(authRequest);
+
+        assertEquals(TestConstants.MOCK_ACCESS_TOKEN, response.getAccessToken());
+        verify(userCredentialRepository).updatePasswordHash(
+                testUser.getUserId(), testUser.getPassword(), TestConstants.UPGRADED_PASSWORD_HASH);
+        verify(userCredentialRepository).findCurrentForShare(
+                testUser.getUserId(), TestConstants.UPGRADED_PASSWORD_HASH, testUser.getRole());
+        verify(userCredentialCache).evict(testUser.getEmail());
+    }
+
+    @Test
+    void authenticate_ShouldSkipRehash_WhenHashIsCurrent() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(false);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+
+        authService.authenticate(authRequest);
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userCredentialRepository, never()).updatePasswordHash(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldSucceed_WhenRehashIsUnavailable() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(anyString()))
+                .thenThrow(new PasswordHashingUnavailableException("Service is busy, please retry later"));
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_ACCESS_TOKEN);
+        when(jwtService.issueRefreshToken(anyString(), anyList())).thenReturn(TestConstants.MOCK_REFRESH_TOKEN);
+
+        AuthResponse response = authService.authenticate(authRequest);
+
+        assertEquals(TestConstants.MOCK_REFRESH_TOKEN, response.getRefreshToken());
+        verify(userCredentialRepository, never()).updatePasswordHash(anyLong(), anyString(), anyString());
+        verify(userCredentialCache, never()).evict(anyString());
+    }
+
+    @Test
+    void authenticate_ShouldRecordBadCredentialsOutcome_WhenPasswordInvalid() {
+        when(userCredentialCache.findByEmail(anyString())).thenReturn(Optional.of(CachedCredential.of(testUser)));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.authenticate(authRequest));
+
+        assertEquals(1, operationTimer(AuthMetrics.OPERATION_AUTHENTICATE, AuthMetrics.OUTCOME_BAD_CREDENTIALS).count());
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("stage", AuthMetrics.STAGE_BCRYPT, "outcome", AuthMetrics.OUTCOME_SUCCESS)
+                .timer().count());
     }
 
     @Test
     void refreshToken_ShouldReturnNewAuthResponse_WhenTokenIsValid() {
-        when(jwtService.extractUsername(anyString())).thenReturn(testUser.getUsername());
-        when(jwtService.getRoles(anyString())).thenReturn(List.of(TestConstants.ROLE_USER));
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken())).thenReturn(Optional.of(stored));
+        when(jwtService.getRoles(claims)).thenReturn(List.of(TestConstants.ROLE_USER));
         when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.NEW_ACCESS_TOKEN);
-        when(jwtService.generateRefreshToken(anyString(), anyList())).thenReturn(TestConstants.NEW_REFRESH_TOKEN);
+        when(jwtService.rotateRefreshToken(any(), anyString(), anyList())).thenReturn(Optional.of(TestConstants.NEW_REFRESH_TOKEN));
 
         AuthResponse response = authService.refreshToken(refreshTokenRequest);
 
@@ -201,32 +396,252 @@ class AuthServiceImplTest {
         assertEquals(TestConstants.NEW_ACCESS_TOKEN, response.getAccessToken());
         assertEquals(TestConstants.NEW_REFRESH_TOKEN, response.getRefreshToken());
 
-        verify(jwtService).extractUsername(refreshTokenRequest.getRefreshToken());
-        verify(jwtService).getRoles(refreshTokenRequest.getRefreshToken());
-        verify(jwtService).deleteRefreshTokenByUserEmail(testUser.getUsername());
+        verify(jwtService, times(1)).extractAllClaims(refreshTokenRequest.getRefreshToken());
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+        verify(jwtService, never()).revokeSession(any());
         verify(jwtService).generateAccessToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).generateRefreshToken(testUser.getUsername(), List.of(TestConstants.ROLE_USER));
-        verify(jwtService).saveRefreshToken(TestConstants.NEW_REFRESH_TOKEN);
+        verify(jwtService).rotateRefreshToken(stored, testUser.getUsername(), List.of(TestConstants.ROLE_USER));
+        verify(jwtService, never()).issueRefreshToken(anyString(), anyList(), any(UUID.class));
+    }
+
+    @Test
+    void refreshToken_ShouldReturnSamePairWithoutRevoking_WhenTokenRetriedWithinGraceWindow() {
+        stubRefreshTokenRotation(() -> Optional.of(TestConstants.NEW_REFRESH_TOKEN));
+
+        AuthResponse rotated = authService.refreshToken(refreshTokenRequest);
+        AuthResponse retried = authService.refreshToken(refreshTokenRequest);
+
+        assertEquals(rotated, retried);
+        verify(jwtService, times(1)).extractAllClaims(anyString());
+        verify(jwtService, times(1)).rotateRefreshToken(any(), anyString(), anyList());
+        verify(jwtService, never()).revokeSession(any());
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+    }
+
+    @Test
+    void refreshToken_ShouldReturnSamePairWithoutRevoking_WhenSameTokenRefreshedConcurrently() throws Exception {
+        // the rotation completes only after the other refresh has joined it
+        stubRefreshTokenRotation(() -> {
+            awaitGraceCacheHit();
+            return Optional.of(TestConstants.NEW_REFRESH_TOKEN);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthResponse> first = executor.submit(() -> authService.refreshToken(refreshTokenRequest));
+            Future<AuthResponse> second = executor.submit(() -> authService.refreshToken(refreshTokenRequest));
+
+            AuthResponse response = first.get(5, TimeUnit.SECONDS);
+            assertEquals(response, second.get(5, TimeUnit.SECONDS));
+            assertEquals(TestConstants.NEW_REFRESH_TOKEN, response.getRefreshToken());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(jwtService, times(1)).rotateRefreshToken(any(), anyString(), anyList());
+        verify(jwtService, never()).revokeSession(any());
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+    }
+
+    @Test
+    void refreshToken_ShouldThrowWithoutRevoking_WhenConcurrentRefreshRotatedOnOtherInstance() {
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken()))
+                .thenReturn(Optional.of(RefreshTokenGenerator.generateRefreshToken()));
+        when(jwtService.getRoles(claims)).thenReturn(List.of(TestConstants.ROLE_USER));
+        when(jwtService.rotateRefreshToken(any(), anyString(), anyList())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService, never()).revokeSession(any());
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+    }
+
+    @Test
+    void refreshToken_ShouldRevokeSessionAndThrow_WhenTokenAlreadyUsed() {
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken())).thenReturn(Optional.empty());
+        when(jwtService.getSessionId(claims)).thenReturn(TestConstants.SESSION_ID);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService).revokeSession(TestConstants.SESSION_ID);
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+        verify(jwtService, never()).generateAccessToken(anyString(), anyList());
+        verify(jwtService, never()).rotateRefreshToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void refreshToken_ShouldRevokeAllSessionsAndThrow_WhenReusedTokenHasNoSession() {
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService).deleteRefreshTokenByUserEmail(testUser.getUsername());
+        verify(jwtService, never()).rotateRefreshToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void refreshToken_ShouldThrow_WhenStoredTokenBelongsToOtherUser() {
+        Claims claims = Jwts.claims().subject(TestConstants.NON_EXISTING_EMAIL).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken()))
+                .thenReturn(Optional.of(RefreshTokenGenerator.generateRefreshToken()));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService, never()).rotateRefreshToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void refreshToken_ShouldThrow_WhenTokenSignatureInvalid() {
+        when(jwtService.extractAllClaims(anyString())).thenThrow(new MalformedJwtException("Malformed"));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService, never()).findStoredRefreshToken(anyString());
+        verify(jwtService, never()).rotateRefreshToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void refreshToken_ShouldResolveOpaqueTokenFromStore_WhenTokenIsOpaque() {
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        refreshTokenRequest.setRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN);
+        when(jwtService.isOpaqueRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(true);
+        when(jwtService.findActiveRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(Optional.of(stored));
+        when(userCredentialRepository.findByEmailIgnoreCase(stored.getUserEmail())).thenReturn(Optional.of(testUser));
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.NEW_ACCESS_TOKEN);
+        when(jwtService.rotateRefreshToken(any(), anyString(), anyList())).thenReturn(Optional.of(TestConstants.NEW_REFRESH_TOKEN));
+
+        AuthResponse response = authService.refreshToken(refreshTokenRequest);
+
+        assertEquals(TestConstants.NEW_ACCESS_TOKEN, response.getAccessToken());
+        assertEquals(TestConstants.NEW_REFRESH_TOKEN, response.getRefreshToken());
+        verify(jwtService, never()).extractAllClaims(anyString());
+        verify(jwtService).generateAccessToken(stored.getUserEmail(), List.of(testUser.getRole().getAuthority()));
+        verify(jwtService).rotateRefreshToken(stored, stored.getUserEmail(), List.of(testUser.getRole().getAuthority()));
+    }
+
+    @Test
+    void refreshToken_ShouldThrow_WhenOpaqueTokenUnknownOrExpired() {
+        refreshTokenRequest.setRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN);
+        when(jwtService.isOpaqueRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(true);
+        when(jwtService.findActiveRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        verify(jwtService, never()).extractAllClaims(anyString());
+        verify(jwtService, never()).rotateRefreshToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void refreshToken_ShouldRejectWithoutRevokingSession_WhenOpaqueTokenAlreadyRotated() {
+        // rotation replaced the stored digest, so the rotated-out handle matches no row
+        refreshTokenRequest.setRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN);
+        when(jwtService.isOpaqueRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(true);
+        when(jwtService.findActiveRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshTokenRequest));
+
+        // opaque mode has no reuse detection: the session the handle belonged to stays valid
+        verify(jwtService, never()).revokeSession(any());
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+    }
+
+    @Test
+    void logout_ShouldRevokeSession_WhenTokenIsStored() {
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken()))
+                .thenReturn(Optional.of(RefreshTokenGenerator.generateRefreshToken()));
+
+        authService.logout(refreshTokenRequest);
+
+        verify(jwtService).revokeSession(TestConstants.SESSION_ID);
+        verify(jwtService, never()).deleteRefreshTokenByUserEmail(anyString());
+    }
+
+    @Test
+    void logout_ShouldDoNothing_WhenTokenIsUnknown() {
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken())).thenReturn(Optional.empty());
+
+        authService.logout(refreshTokenRequest);
+
+        verify(jwtService, never()).revokeSession(any());
+    }
+
+    @Test
+    void logoutAll_ShouldRevokeAllSessions_WhenUsernameProvided() {
+        authService.logoutAll(TestConstants.USER_EMAIL);
+
+        verify(jwtService).deleteRefreshTokenByUserEmail(TestConstants.USER_EMAIL);
     }
 
     @Test
     void validateToken_ShouldReturnTrue_WhenTokenIsValid() {
-        when(jwtService.isTokenValid(anyString())).thenReturn(true);
+        when(jwtService.verifyUncachedToken(anyString())).thenReturn(Optional.of(new VerifiedToken(
+                TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER), Instant.now().plusSeconds(60))));
 
         boolean isValid = authService.validateToken(TestConstants.VALID_TOKEN);
 
         assertTrue(isValid);
-        verify(jwtService).isTokenValid(TestConstants.VALID_TOKEN);
+        verify(jwtService).verifyUncachedToken(TestConstants.VALID_TOKEN);
+        assertEquals(1, operationTimer(AuthMetrics.OPERATION_VALIDATE, AuthMetrics.OUTCOME_SUCCESS).count());
+    }
+
+    @Test
+    void validateToken_ShouldSkipVerificationAndTimer_WhenTokenIsCached() {
+        when(jwtService.findCachedToken(anyString())).thenReturn(Optional.of(new VerifiedToken(
+                TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER), Instant.now().plusSeconds(60))));
+
+        assertTrue(authService.validateToken(TestConstants.VALID_TOKEN));
+
+        verify(jwtService, never()).verifyUncachedToken(anyString());
+        assertTrue(meterRegistry.find(AuthMetrics.OPERATION_TIMER).timers().isEmpty());
     }
 
     @Test
     void validateToken_ShouldReturnFalse_WhenTokenIsInvalid() {
-        when(jwtService.isTokenValid(anyString())).thenReturn(false);
+        when(jwtService.verifyUncachedToken(anyString())).thenReturn(Optional.empty());
 
         boolean isValid = authService.validateToken(TestConstants.INVALID_TOKEN);
 
         assertFalse(isValid);
-        verify(jwtService).isTokenValid(TestConstants.INVALID_TOKEN);
+        verify(jwtService).verifyUncachedToken(TestConstants.INVALID_TOKEN);
+        assertEquals(1, operationTimer(AuthMetrics.OPERATION_VALIDATE, AuthMetrics.OUTCOME_INVALID).count());
+    }
+
+    @Test
+    void validateTokens_ShouldReturnResultPerToken_WhenBatchContainsValidAndInvalidTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(jwtService.verifyUncachedToken(TestConstants.VALID_TOKEN)).thenReturn(Optional.of(
+                new VerifiedToken(TestConstants.USER_EMAIL, List.of(TestConstants.ROLE_USER), expiresAt)));
+        when(jwtService.verifyUncachedToken(TestConstants.INVALID_TOKEN)).thenReturn(Optional.empty());
+
+        List<TokenValidationResult> results = authService.validateTokens(
+                List.of(TestConstants.VALID_TOKEN, TestConstants.INVALID_TOKEN));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isValid());
+        assertEquals(TestConstants.USER_EMAIL, results.get(0).getSubject());
+        assertEquals(List.of(TestConstants.ROLE_USER), results.get(0).getRoles());
+        assertEquals(expiresAt, results.get(0).getExpiresAt());
+        assertFalse(results.get(1).isValid());
+        assertEquals(null, results.get(1).getSubject());
+        verify(tokenValidationExecutor, times(2)).execute(any());
+    }
+
+    @Test
+    void validateTokens_ShouldValidateOnCallerThread_WhenBatchHasSingleToken() {
+        when(jwtService.verifyUncachedToken(TestConstants.INVALID_TOKEN)).thenReturn(Optional.empty());
+
+        List<TokenValidationResult> results = authService.validateTokens(List.of(TestConstants.INVALID_TOKEN));
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isValid());
+        verify(tokenValidationExecutor, never()).execute(any());
     }
 
     @Test
@@ -238,6 +653,7 @@ class AuthServiceImplTest {
         verify(jwtService).deleteRefreshTokenByUserEmail(testUser.getEmail());
         verify(userCredentialRepository, times(1)).deleteById(TestConstants.USER_ID);
         verify(userCredentialRepository, times(1)).findById(TestConstants.USER_ID);
+        verify(userCredentialCache).evict(testUser.getEmail());
     }
 
     @Test
@@ -249,5 +665,33 @@ class AuthServiceImplTest {
 
         verify(userCredentialRepository, never()).deleteById(any());
         verify(userCredentialRepository, times(1)).findById(TestConstants.SECOND_USER_ID);
+        verify(userCredentialCache, never()).evict(anyString());
+    }
+
+    private Timer operationTimer(String operation, String outcome) {
+        return meterRegistry.get(AuthMetrics.OPERATION_TIMER)
+                .tags("operation", operation, "outcome", outcome)
+                .timer();
+    }
+
+    private void stubRefreshTokenRotation(Supplier<Optional<String>> rotation) {
+        Claims claims = Jwts.claims().subject(testUser.getUsername()).build();
+        when(jwtService.extractAllClaims(anyString())).thenReturn(claims);
+        when(jwtService.findStoredRefreshToken(refreshTokenRequest.getRefreshToken()))
+                .thenReturn(Optional.of(RefreshTokenGenerator.generateRefreshToken()));
+        when(jwtService.getRoles(claims)).thenReturn(List.of(TestConstants.ROLE_USER));
+        when(jwtService.generateAccessToken(anyString(), anyList())).thenReturn(TestConstants.NEW_ACCESS_TOKEN);
+        when(jwtService.rotateRefreshToken(any(), anyString(), anyList())).thenAnswer(invocation -> rotation.get());
+    }
+
+    private void awaitGraceCacheHit() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("cache.gets").tag("cache", RefreshGraceCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count() < 1) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Second refresh did not join the rotation");
+            }
+            Thread.onSpinWait();
+        }
     }
 }
@@ -1,36 +1,53 @@
 package com.mymicroservice.authservice.unit.service;
 
+import com.mymicroservice.authservice.cache.TokenValidationCache;
+import com.mymicroservice.authservice.cache.VerifiedToken;
+import com.mymicroservice.authservice.metrics.AuthMetrics;
 import com.mymicroservice.authservice.model.RefreshToken;
 import com.mymicroservice.authservice.model.Role;
 import com.mymicroservice.authservice.repository.RefreshTokenRepository;
+import com.mymicroservice.authservice.security.JwtAlgorithm;
+import com.mymicroservice.authservice.security.JwtKeyRing;
+import com.mymicroservice.authservice.security.RefreshTokenFormat;
 import com.mymicroservice.authservice.service.JwtService;
+import com.mymicroservice.authservice.util.JwtKeyRingGenerator;
 import com.mymicroservice.authservice.util.RefreshTokenGenerator;
+import com.mymicroservice.authservice.util.TokenDigests;
 import com.mymicroservice.authservice.util.data.TestConstants;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
-import java.security.PrivateKey;
-import java.security.PublicKey;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,37 +55,23 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
-    private JwtService jwtService;
-
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
-    private PrivateKey privateKey;
-    private PublicKey publicKey;
-
-    @BeforeEach
-    void setUp() throws Exception {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
-        keyGen.initialize(TestConstants.RSA_KEY_SIZE);
-        KeyPair keyPair = keyGen.generateKeyPair();
-        privateKey = keyPair.getPrivate();
-        publicKey = keyPair.getPublic();
+    @Spy
+    private TokenValidationCache tokenValidationCache =
+            new TokenValidationCache(new SimpleMeterRegistry(), true, TestConstants.VALIDATION_CACHE_SIZE);
 
-        var privateField = JwtService.class.getDeclaredField("privateKey");
-        var publicField = JwtService.class.getDeclaredField("publicKey");
-        privateField.setAccessible(true);
-        publicField.setAccessible(true);
-        privateField.set(jwtService, privateKey);
-        publicField.set(jwtService, publicKey);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthMetrics authMetrics = new AuthMetrics(meterRegistry, ObservationRegistry.NOOP);
 
-        var expirationField = JwtService.class.getDeclaredField("jwtExpiration");
-        expirationField.setAccessible(true);
-        expirationField.set(jwtService, Duration.ofMinutes(15));
+    private JwtKeyRing jwtKeyRing;
+    private JwtService jwtService;
 
-        var refreshExpField = JwtService.class.getDeclaredField("refreshExpiration");
-        refreshExpField.setAccessible(true);
-        refreshExpField.set(jwtService, Duration.ofDays(7));
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtKeyRing = JwtKeyRingGenerator.generateKeyRing();
+        jwtService = configuredService(jwtKeyRing);
     }
 
     @Test
@@ -77,7 +80,7 @@ class JwtServiceTest {
 
         assertNotNull(token);
         assertFalse(token.isEmpty());
-        assertEquals(TestConstants.USER_EMAIL, jwtService.extractUsername(token));
+        assertEquals(TestConstants.USER_EMAIL, jwtService.extractAllClaims(token).getSubject());
     }
 
     @Test
@@ -86,7 +89,15 @@ class JwtServiceTest {
 
         assertNotNull(token);
         assertFalse(token.isEmpty());
-        assertEquals(TestConstants.USER_EMAIL, jwtService.extractUsername(token));
+        assertEquals(TestConstants.USER_EMAIL, jwtService.extractAllClaims(token).getSubject());
+    }
+
+    @Test
+    void generateRefreshToken_ShouldReturnDistinctTokens_WhenIssuedInSameSecond() {
+        String first = jwtService.generateRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+        String second = jwtService.generateRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertNotEquals(first, second);
     }
 
     @Test
@@ -96,41 +107,187 @@ class JwtServiceTest {
         assertTrue(jwtService.isTokenValid(token));
     }
 
+    @Test
+    void isTokenValid_ShouldUseCache_WhenTokenValidatedAgain() {
+        String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertTrue(jwtService.isTokenValid(token));
+        assertTrue(jwtService.isTokenValid(token));
+
+        verify(tokenValidationCache, times(1)).put(any(), any());
+        assertEquals(1, tokenValidationCache.size());
+    }
+
+    @Test
+    void generateAccessToken_ShouldRecordSignAndVerifyStages_WhenTokenIssuedAndValidated() {
+        String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertTrue(jwtService.isTokenValid(token));
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("stage", AuthMetrics.STAGE_JWT_SIGN, "outcome", AuthMetrics.OUTCOME_SUCCESS)
+                .timer().count());
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("stage", AuthMetrics.STAGE_JWT_VERIFY, "outcome", AuthMetrics.OUTCOME_SUCCESS)
+                .timer().count());
+    }
+
+    @Test
+    void verifyToken_ShouldReturnSubjectAndRoles_WhenTokenIsValid() {
+        String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        Optional<VerifiedToken> verifiedToken = jwtService.verifyToken(token);
+
+        assertTrue(verifiedToken.isPresent());
+        assertEquals(TestConstants.USER_EMAIL, verifiedToken.get().subject());
+        assertEquals(List.of(TestConstants.ROLE_USER), verifiedToken.get().roles());
+        assertTrue(verifiedToken.get().expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void isTokenValid_ShouldReturnFalse_WhenTokenIsBlank() {
+        assertFalse(jwtService.isTokenValid(null));
+        assertFalse(jwtService.isTokenValid(" "));
+    }
+
     @Test
     void isTokenValid_ShouldReturnFalse_WhenTokenIsInvalid() {
         assertFalse(jwtService.isTokenValid(TestConstants.INVALID_JWT_STRING));
     }
 
     @Test
-    void extractUsername_ShouldReturnCorrectUsername_WhenTokenIsValid() {
-        String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+    void issueRefreshToken_ShouldUpsertTokenWithoutReparsing_WhenUserEmailProvided() {
+        ArgumentCaptor<Instant> issuedAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> expiresAt = ArgumentCaptor.forClass(Instant.class);
 
-        assertEquals(TestConstants.USER_EMAIL, jwtService.extractUsername(token));
+        String refreshToken = jwtService.issueRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertEquals(TestConstants.USER_EMAIL, jwtService.extractAllClaims(refreshToken).getSubject());
+        verify(refreshTokenRepository, times(1)).upsertRefreshToken(any(UUID.class), eq(TestConstants.USER_EMAIL),
+                aryEq(TokenDigests.sha256(refreshToken)), issuedAt.capture(), expiresAt.capture());
+        assertTrue(expiresAt.getValue().isAfter(issuedAt.getValue()));
     }
 
     @Test
-    void saveRefreshToken_ShouldUpdateToken_WhenTokenExists() {
-        String refreshToken = jwtService.generateRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
-        RefreshToken existingToken = RefreshTokenGenerator.generateRefreshToken();
+    void issueRefreshToken_ShouldStartNewSession_WhenSessionNotGiven() {
+        ArgumentCaptor<UUID> sessionIds = ArgumentCaptor.forClass(UUID.class);
 
-        when(refreshTokenRepository.findByUserEmailIgnoreCase(TestConstants.USER_EMAIL))
-                .thenReturn(Optional.of(existingToken));
+        String first = jwtService.issueRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+        String second = jwtService.issueRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
 
-        jwtService.saveRefreshToken(refreshToken);
+        verify(refreshTokenRepository, times(2)).upsertRefreshToken(sessionIds.capture(), eq(TestConstants.USER_EMAIL),
+                any(), any(Instant.class), any(Instant.class));
+        assertNotEquals(sessionIds.getAllValues().get(0), sessionIds.getAllValues().get(1));
+        assertEquals(sessionIds.getAllValues().get(0), jwtService.getSessionId(jwtService.extractAllClaims(first)));
+        assertEquals(sessionIds.getAllValues().get(1), jwtService.getSessionId(jwtService.extractAllClaims(second)));
+    }
 
-        verify(refreshTokenRepository, times(1)).save(existingToken);
+    @Test
+    void issueRefreshToken_ShouldKeepSession_WhenSessionGiven() {
+        String refreshToken = jwtService.issueRefreshToken(TestConstants.USER_EMAIL,
+                List.of(Role.USER.getAuthority()), TestConstants.SESSION_ID);
+
+        assertEquals(TestConstants.SESSION_ID, jwtService.getSessionId(jwtService.extractAllClaims(refreshToken)));
+        verify(refreshTokenRepository).upsertRefreshToken(eq(TestConstants.SESSION_ID), eq(TestConstants.USER_EMAIL),
+                aryEq(TokenDigests.sha256(refreshToken)), any(Instant.class), any(Instant.class));
     }
 
     @Test
-    void saveRefreshToken_ShouldCreateNewToken_WhenTokenNotExists() {
+    void rotateRefreshToken_ShouldReturnNewTokenInSameSession_WhenVersionMatches() {
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        stored.setVersion(TestConstants.REFRESH_TOKEN_VERSION);
+        when(refreshTokenRepository.rotateRefreshToken(any(UUID.class), anyLong(), any(byte[].class),
+                any(Instant.class), any(Instant.class))).thenReturn(1);
+
+        String refreshToken = jwtService.rotateRefreshToken(stored, TestConstants.USER_EMAIL,
+                List.of(Role.USER.getAuthority())).orElseThrow();
+
+        assertEquals(TestConstants.SESSION_ID, jwtService.getSessionId(jwtService.extractAllClaims(refreshToken)));
+        verify(refreshTokenRepository).rotateRefreshToken(eq(TestConstants.SESSION_ID),
+                eq(TestConstants.REFRESH_TOKEN_VERSION), aryEq(TokenDigests.sha256(refreshToken)),
+                any(Instant.class), any(Instant.class));
+        verify(refreshTokenRepository, never()).upsertRefreshToken(any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void rotateRefreshToken_ShouldReturnEmpty_WhenSessionRotatedConcurrently() {
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        stored.setVersion(TestConstants.REFRESH_TOKEN_VERSION);
+        when(refreshTokenRepository.rotateRefreshToken(any(UUID.class), anyLong(), any(byte[].class),
+                any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        assertTrue(jwtService.rotateRefreshToken(stored, TestConstants.USER_EMAIL,
+                List.of(Role.USER.getAuthority())).isEmpty());
+    }
+
+    @Test
+    void getSessionId_ShouldReturnNull_WhenTokenIssuedBeforeSessions() {
+        Claims claims = Jwts.claims().subject(TestConstants.USER_EMAIL).build();
+
+        assertNull(jwtService.getSessionId(claims));
+    }
+
+    @Test
+    void issueRefreshToken_ShouldUpsertOpaqueToken_WhenOpaqueFormatConfigured() throws Exception {
+        setField(jwtService, "refreshTokenFormat", RefreshTokenFormat.OPAQUE);
+
+        String first = jwtService.issueRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+        String second = jwtService.issueRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertEquals(TestConstants.OPAQUE_REFRESH_TOKEN_LENGTH, first.length());
+        assertTrue(jwtService.isOpaqueRefreshToken(first));
+        assertNotEquals(first, second);
+        verify(refreshTokenRepository, times(1)).upsertRefreshToken(any(UUID.class), eq(TestConstants.USER_EMAIL),
+                aryEq(TokenDigests.sha256(first)), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void isOpaqueRefreshToken_ShouldReturnFalse_WhenTokenIsJwt() {
         String refreshToken = jwtService.generateRefreshToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
 
-        when(refreshTokenRepository.findByUserEmailIgnoreCase(TestConstants.USER_EMAIL))
-                .thenReturn(Optional.empty());
+        assertFalse(jwtService.isOpaqueRefreshToken(refreshToken));
+        assertTrue(jwtService.isOpaqueRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN));
+    }
 
-        jwtService.saveRefreshToken(refreshToken);
+    @Test
+    void findActiveRefreshToken_ShouldReturnToken_WhenDigestFoundAndNotExpired() {
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        stored.setExpiresAt(Instant.now().plus(Duration.ofDays(1)));
+        when(refreshTokenRepository.findByTokenHash(aryEq(TokenDigests.sha256(TestConstants.OPAQUE_REFRESH_TOKEN))))
+                .thenReturn(Optional.of(stored));
+
+        assertEquals(Optional.of(stored), jwtService.findActiveRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN));
+    }
+
+    @Test
+    void findActiveRefreshToken_ShouldReturnEmpty_WhenTokenExpired() {
+        when(refreshTokenRepository.findByTokenHash(any()))
+                .thenReturn(Optional.of(RefreshTokenGenerator.generateRefreshToken()));
 
-        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        assertTrue(jwtService.findActiveRefreshToken(TestConstants.OPAQUE_REFRESH_TOKEN).isEmpty());
+    }
+
+    @Test
+    void findStoredRefreshToken_ShouldReturnToken_WhenDigestFound() {
+        RefreshToken stored = RefreshTokenGenerator.generateRefreshToken();
+        when(refreshTokenRepository.findByTokenHash(aryEq(TokenDigests.sha256(TestConstants.REFRESH_TOKEN_VALUE))))
+                .thenReturn(Optional.of(stored));
+
+        assertEquals(Optional.of(stored), jwtService.findStoredRefreshToken(TestConstants.REFRESH_TOKEN_VALUE));
+    }
+
+    @Test
+    void findStoredRefreshToken_ShouldReturnEmpty_WhenDigestNotFound() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertTrue(jwtService.findStoredRefreshToken(TestConstants.REFRESH_TOKEN_VALUE).isEmpty());
+    }
+
+    @Test
+    void revokeSession_ShouldDeleteOnlyThatSession_WhenSessionIdProvided() {
+        jwtService.revokeSession(TestConstants.SESSION_ID);
+
+        verify(refreshTokenRepository).deleteBySessionId(TestConstants.SESSION_ID);
+        verify(refreshTokenRepository, never()).deleteRefreshTokenByUserEmailIgnoreCase(any());
     }
 
     @Test
@@ -153,14 +310,11 @@ class JwtServiceTest {
     }
 
     @Test
-    void getRoles_ShouldReturnRolesFromToken_WhenTokenIsValid() {
+    void getRoles_ShouldReturnRolesFromClaims_WhenClaimsAlreadyParsed() {
         String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+        Claims claims = jwtService.extractAllClaims(token);
 
-        List<String> roles = jwtService.getRoles(token);
-
-        assertNotNull(roles);
-        assertEquals(1, roles.size());
-        assertEquals(TestConstants.ROLE_USER, roles.get(0));
+        assertEquals(List.of(TestConstants.ROLE_USER), jwtService.getRoles(claims));
     }
 
     @Test
@@ -168,14 +322,17 @@ class JwtServiceTest {
         Instant issuedAt = Instant.parse("2020-01-01T00:00:00Z");
         Instant expiresAt = Instant.parse("2020-01-01T00:00:01Z");
         String token = Jwts.builder()
-                .setSubject(TestConstants.USER_EMAIL)
+                .subject(TestConstants.USER_EMAIL)
                 .claim("roles", List.of(Role.USER.getAuthority()))
-                .setIssuedAt(Date.from(issuedAt))
-                .setExpiration(Date.from(expiresAt))
-                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(expiresAt))
+                .signWith(jwtKeyRing.getSigningKey().privateKey(), Jwts.SIG.RS256)
                 .compact();
 
         assertFalse(jwtService.isTokenValid(token));
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("stage", AuthMetrics.STAGE_JWT_VERIFY, "outcome", AuthMetrics.OUTCOME_EXPIRED)
+                .timer().count());
     }
 
     @Test
@@ -186,29 +343,106 @@ class JwtServiceTest {
 
         Instant now = Instant.parse("2025-01-01T12:00:00Z");
         String foreignToken = Jwts.builder()
-                .setSubject(TestConstants.USER_EMAIL)
+                .subject(TestConstants.USER_EMAIL)
                 .claim("roles", List.of(Role.USER.getAuthority()))
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(now.plusSeconds(60)))
-                .signWith(otherKeyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(otherKeyPair.getPrivate(), Jwts.SIG.RS256)
                 .compact();
 
         assertFalse(jwtService.isTokenValid(foreignToken));
     }
 
     @Test
-    void init_ShouldLoadKeysFromClasspath_WhenApplicationStarts() throws Exception {
-        JwtService service = new JwtService(refreshTokenRepository);
-        service.init();
+    void generateAccessToken_ShouldSetKeyIdHeader_WhenKeyRingHasActiveKey() {
+        String token = jwtService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertTrue(decodedHeader(token).contains("\"kid\":\"" + jwtKeyRing.getSigningKey().keyId() + "\""));
+    }
+
+    @Test
+    void isTokenValid_ShouldReturnTrue_WhenTokenHasNoKeyId() {
+        Instant now = Instant.now();
+        String legacyToken = Jwts.builder()
+                .subject(TestConstants.USER_EMAIL)
+                .claim("roles", List.of(Role.USER.getAuthority()))
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(jwtKeyRing.getSigningKey().privateKey(), Jwts.SIG.RS256)
+                .compact();
+
+        assertTrue(jwtService.isTokenValid(legacyToken));
+    }
 
-        setDurationField(service, "jwtExpiration", Duration.ofMinutes(15));
-        setDurationField(service, "refreshExpiration", Duration.ofDays(7));
+    @Test
+    void isTokenValid_ShouldReturnFalse_WhenKeyIdIsUnknown() {
+        Instant now = Instant.now();
+        String token = Jwts.builder()
+                .header().keyId(TestConstants.UNKNOWN_KEY_ID).and()
+                .subject(TestConstants.USER_EMAIL)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(jwtKeyRing.getSigningKey().privateKey(), Jwts.SIG.RS256)
+                .compact();
+
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
+    @Test
+    void init_ShouldSignWithEs256_WhenEcKeysConfigured() throws Exception {
+        JwtService service = configuredService(JwtAlgorithm.ES256,
+                TestConstants.ES256_PRIVATE_KEY_LOCATION, TestConstants.ES256_PUBLIC_KEY_LOCATION);
 
         String token = service.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertTrue(decodedHeader(token).contains("\"alg\":\"ES256\""));
         assertTrue(service.isTokenValid(token));
+        assertEquals(TestConstants.USER_EMAIL, service.extractAllClaims(token).getSubject());
+    }
+
+    @Test
+    void init_ShouldSignWithEdDsa_WhenEd25519KeysConfigured() throws Exception {
+        JwtService service = configuredService(JwtAlgorithm.EdDSA,
+                TestConstants.ED25519_PRIVATE_KEY_LOCATION, TestConstants.ED25519_PUBLIC_KEY_LOCATION);
+
+        String token = service.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertTrue(decodedHeader(token).contains("\"alg\":\"EdDSA\""));
+        assertTrue(service.isTokenValid(token));
+        assertEquals(List.of(TestConstants.ROLE_USER), service.getRoles(service.extractAllClaims(token)));
+    }
+
+    @Test
+    void isTokenValid_ShouldReturnFalse_WhenTokenSignedWithOtherAlgorithm() throws Exception {
+        JwtService ecService = configuredService(JwtAlgorithm.ES256,
+                TestConstants.ES256_PRIVATE_KEY_LOCATION, TestConstants.ES256_PUBLIC_KEY_LOCATION);
+
+        String ecToken = ecService.generateAccessToken(TestConstants.USER_EMAIL, List.of(Role.USER.getAuthority()));
+
+        assertFalse(jwtService.isTokenValid(ecToken));
+    }
+
+    private JwtService configuredService(JwtAlgorithm algorithm, String privateKeyLocation,
+                                         String publicKeyLocation) throws Exception {
+        return configuredService(JwtKeyRingGenerator.generateKeyRing(
+                algorithm, privateKeyLocation, publicKeyLocation, List.of()));
+    }
+
+    private JwtService configuredService(JwtKeyRing keyRing) throws Exception {
+        JwtService service = new JwtService(refreshTokenRepository, tokenValidationCache, keyRing, authMetrics);
+        service.init();
+
+        setField(service, "jwtExpiration", Duration.ofMinutes(15));
+        setField(service, "refreshExpiration", Duration.ofDays(7));
+        setField(service, "refreshTokenFormat", RefreshTokenFormat.JWT);
+        return service;
+    }
+
+    private String decodedHeader(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
     }
 
-    private void setDurationField(JwtService service, String fieldName, Duration value) throws Exception {
+    private void setField(JwtService service, String fieldName, Object value) throws Exception {
         var field = JwtService.class.getDeclaredField(fieldName);
         field.setAccessible(true);
         field.set(service, value);
@@ -0,0 +1,76 @@
+package com.mymicroservice.authservice.unit.service;
+
+import com.mymicroservice.authservice.repository.RefreshTokenRepository;
+import com.mymicroservice.authservice.service.RefreshTokenPurgeService;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPurgeServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeService = new RefreshTokenPurgeService(refreshTokenRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry,
+                TestConstants.PURGE_BATCH_SIZE, TestConstants.PURGE_MAX_BATCHES);
+    }
+
+    @Test
+    void purgeExpired_ShouldStop_WhenBatchIsIncomplete() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(TestConstants.PURGE_BATCH_SIZE)))
+                .thenReturn(TestConstants.PURGE_BATCH_SIZE, 1);
+
+        int purged = purgeService.purgeExpired();
+
+        assertEquals(TestConstants.PURGE_BATCH_SIZE + 1, purged);
+        verify(refreshTokenRepository, times(2)).deleteExpiredBatch(any(Instant.class), eq(TestConstants.PURGE_BATCH_SIZE));
+        assertEquals(purged, meterRegistry.get("auth.refresh.tokens.purged").counter().count());
+        assertEquals(1, meterRegistry.get("auth.refresh.tokens.purge").timer().count());
+    }
+
+    @Test
+    void purgeExpired_ShouldStopAtMaxBatches_WhenExpiredRowsRemain() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(TestConstants.PURGE_BATCH_SIZE)))
+                .thenReturn(TestConstants.PURGE_BATCH_SIZE);
+
+        int purged = purgeService.purgeExpired();
+
+        assertEquals(TestConstants.PURGE_BATCH_SIZE * TestConstants.PURGE_MAX_BATCHES, purged);
+        verify(refreshTokenRepository, times(TestConstants.PURGE_MAX_BATCHES))
+                .deleteExpiredBatch(any(Instant.class), eq(TestConstants.PURGE_BATCH_SIZE));
+    }
+
+    @Test
+    void scheduledPurge_ShouldNotThrow_WhenRepositoryFails() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(TestConstants.PURGE_BATCH_SIZE)))
+                .thenThrow(new IllegalStateException("DB is down"));
+
+        assertDoesNotThrow(() -> purgeService.scheduledPurge());
+        assertEquals(1, meterRegistry.get("auth.refresh.tokens.purge").timer().count());
+    }
+}
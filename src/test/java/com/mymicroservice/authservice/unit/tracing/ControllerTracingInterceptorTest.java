@@ -0,0 +1,83 @@
+package com.mymicroservice.authservice.unit.tracing;
+
+import com.mymicroservice.authservice.controller.AuthController;
+import com.mymicroservice.authservice.dto.AuthRequest;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.ControllerTracingInterceptor;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import com.mymicroservice.authservice.tracing.SpanRecordingHandler;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ControllerTracingInterceptorTest {
+
+    private InMemorySpanExporter exporter;
+    private ObservationRegistry observationRegistry;
+    private ControllerTracingInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter(TestConstants.TRACING_MAX_SPANS);
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new SpanRecordingHandler(exporter));
+        interceptor = new ControllerTracingInterceptor(observationRegistry);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void afterCompletion_ShouldRecordControllerSpan_WhenHandlerMethodCompletes() throws Exception {
+        HandlerMethod handler = loginHandler();
+
+        interceptor.preHandle(request, response, handler);
+        assertEquals(AuthSpans.OBSERVATION_NAME, observationRegistry.getCurrentObservation().getContext().getName());
+        response.setStatus(401);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        SpanRecord span = exporter.spans().get(0);
+        assertEquals("AuthController.login", span.name());
+        assertEquals(AuthSpans.LAYER_CONTROLLER, span.layer());
+        assertEquals("401", span.tags().get("status"));
+        assertNull(span.error());
+        assertNull(observationRegistry.getCurrentObservation());
+    }
+
+    @Test
+    void afterCompletion_ShouldRecordError_WhenHandlerThrows() throws Exception {
+        HandlerMethod handler = loginHandler();
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, new IllegalStateException("boom"));
+
+        assertEquals("IllegalStateException", exporter.spans().get(0).error());
+    }
+
+    @Test
+    void preHandle_ShouldSkipSpan_WhenHandlerIsNotAMethod() throws Exception {
+        Object handler = new Object();
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertTrue(exporter.spans().isEmpty());
+    }
+
+    private static HandlerMethod loginHandler() throws NoSuchMethodException {
+        return new HandlerMethod(mock(AuthController.class),
+                AuthController.class.getMethod("login", AuthRequest.class, HttpServletRequest.class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.mymicroservice.authservice.unit.tracing;
+
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySpanExporterTest {
+
+    @Test
+    void export_ShouldDropOldestSpan_WhenCapacityExceeded() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter(2);
+
+        exporter.export(span("first"));
+        exporter.export(span("second"));
+        exporter.export(span("third"));
+
+        assertEquals(2, exporter.spans().size());
+        assertEquals("second", exporter.spans().get(0).name());
+        assertEquals("third", exporter.spans().get(1).name());
+    }
+
+    @Test
+    void clear_ShouldRemoveAllSpans_WhenCalled() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter(2);
+        exporter.export(span("first"));
+
+        exporter.clear();
+
+        assertTrue(exporter.spans().isEmpty());
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenCapacityNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemorySpanExporter(0));
+    }
+
+    private static SpanRecord span(String name) {
+        return new SpanRecord("trace", "span", null, name, "service", 0L, 1L, null, Map.of());
+    }
+}
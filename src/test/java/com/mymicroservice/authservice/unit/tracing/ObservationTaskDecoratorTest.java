@@ -0,0 +1,42 @@
+package com.mymicroservice.authservice.unit.tracing;
+
+import com.mymicroservice.authservice.tracing.ObservationTaskDecorator;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ObservationTaskDecoratorTest {
+
+    @Test
+    void decorate_ShouldRunTaskInSubmittersObservation_WhenObservationIsOpen() throws Exception {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(context -> true);
+        ObservationTaskDecorator decorator = new ObservationTaskDecorator(observationRegistry);
+        AtomicReference<Observation> seen = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Observation observation = Observation.start("auth.span", observationRegistry);
+            Runnable task;
+            try (Observation.Scope scope = observation.openScope()) {
+                task = decorator.decorate(() -> seen.set(observationRegistry.getCurrentObservation()));
+            }
+            CompletableFuture.runAsync(task, executor).get();
+            observation.stop();
+
+            assertSame(observation, seen.get());
+            CompletableFuture.runAsync(() -> seen.set(observationRegistry.getCurrentObservation()), executor).get();
+            assertNull(seen.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mymicroservice.authservice.unit.tracing;
+
+import com.mymicroservice.authservice.metrics.AuthMetrics;
+import com.mymicroservice.authservice.model.UserCredential;
+import com.mymicroservice.authservice.repository.UserCredentialRepository;
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.RepositoryTracingInterceptor;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import com.mymicroservice.authservice.tracing.SpanRecordingHandler;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepositoryTracingInterceptorTest {
+
+    private InMemorySpanExporter exporter;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthMetrics authMetrics;
+    private UserCredentialRepository target;
+    private UserCredentialRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter(TestConstants.TRACING_MAX_SPANS);
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new SpanRecordingHandler(exporter));
+
+        meterRegistry = new SimpleMeterRegistry();
+        authMetrics = new AuthMetrics(meterRegistry, ObservationRegistry.NOOP);
+
+        target = mock(UserCredentialRepository.class);
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new RepositoryTracingInterceptor(observationRegistry, authMetrics, "UserCredentialRepository"));
+        repository = (UserCredentialRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void invoke_ShouldRecordRepositorySpan_WhenMethodCalled() {
+        when(target.findByEmailIgnoreCase(TestConstants.USER_EMAIL)).thenReturn(Optional.<UserCredential>empty());
+
+        assertTrue(repository.findByEmailIgnoreCase(TestConstants.USER_EMAIL).isEmpty());
+
+        SpanRecord span = exporter.spans().get(0);
+        assertEquals("UserCredentialRepository.findByEmailIgnoreCase", span.name());
+        assertEquals(AuthSpans.LAYER_REPOSITORY, span.layer());
+    }
+
+    @Test
+    void invoke_ShouldRecordDbStageOfOperation_WhenCalledInsideOperation() {
+        when(target.findByEmailIgnoreCase(TestConstants.USER_EMAIL)).thenReturn(Optional.<UserCredential>empty());
+
+        authMetrics.operation(AuthMetrics.OPERATION_REGISTER, () -> repository.findByEmailIgnoreCase(TestConstants.USER_EMAIL));
+
+        assertEquals(1, meterRegistry.get(AuthMetrics.STAGE_TIMER)
+                .tags("operation", AuthMetrics.OPERATION_REGISTER, "stage", AuthMetrics.STAGE_DB,
+                        "outcome", AuthMetrics.OUTCOME_SUCCESS)
+                .timer().count());
+    }
+
+    @Test
+    void invoke_ShouldRecordErrorAndRethrow_WhenMethodFails() {
+        when(target.findByEmailIgnoreCase(TestConstants.USER_EMAIL)).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> repository.findByEmailIgnoreCase(TestConstants.USER_EMAIL));
+
+        assertEquals("QueryTimeoutException", exporter.spans().get(0).error());
+    }
+
+    @Test
+    void invoke_ShouldSkipSpan_WhenObjectMethodCalled() {
+        repository.hashCode();
+
+        assertTrue(exporter.spans().isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package com.mymicroservice.authservice.unit.tracing;
+
+import com.mymicroservice.authservice.tracing.AuthSpans;
+import com.mymicroservice.authservice.tracing.InMemorySpanExporter;
+import com.mymicroservice.authservice.tracing.SpanRecord;
+import com.mymicroservice.authservice.tracing.SpanRecordingHandler;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpanRecordingHandlerTest {
+
+    private InMemorySpanExporter exporter;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter(TestConstants.TRACING_MAX_SPANS);
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new SpanRecordingHandler(exporter));
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void onStop_ShouldLinkChildToParent_WhenSpansAreNested() {
+        AuthSpans.observation("AuthController.login", AuthSpans.LAYER_CONTROLLER, observationRegistry).observe(() ->
+                AuthSpans.observation("UserCredentialRepository.findByEmailIgnoreCase",
+                        AuthSpans.LAYER_REPOSITORY, observationRegistry).observe(() -> { }));
+
+        List<SpanRecord> spans = exporter.spans();
+        assertEquals(2, spans.size());
+        SpanRecord child = spans.get(0);
+        SpanRecord root = spans.get(1);
+
+        assertNull(root.parentSpanId());
+        assertEquals(root.spanId(), child.parentSpanId());
+        assertEquals(root.traceId(), child.traceId());
+        assertNotEquals(root.spanId(), child.spanId());
+        assertEquals(32, root.traceId().length());
+        assertEquals(16, root.spanId().length());
+        assertEquals(AuthSpans.LAYER_REPOSITORY, child.layer());
+        assertEquals("UserCredentialRepository.findByEmailIgnoreCase", child.name());
+        assertTrue(root.durationNanos() >= child.durationNanos());
+    }
+
+    @Test
+    void onStart_ShouldUseMdcTraceId_WhenRootSpanStarts() {
+        MDC.put("traceId", TestConstants.TRACE_ID);
+
+        AuthSpans.observation("AuthController.login", AuthSpans.LAYER_CONTROLLER, observationRegistry)
+                .observe(() -> { });
+
+        assertEquals(TestConstants.TRACE_ID, exporter.spans().get(0).traceId());
+    }
+
+    @Test
+    void onStop_ShouldRecordErrorAndTags_WhenObservationFails() {
+        Observation observation = AuthSpans.observation("bcrypt", AuthSpans.LAYER_CRYPTO, observationRegistry)
+                .lowCardinalityKeyValue("outcome", "busy");
+
+        assertThrows(IllegalStateException.class, () -> observation.observe(() -> {
+            throw new IllegalStateException("pool exhausted");
+        }));
+
+        SpanRecord span = exporter.spans().get(0);
+        assertEquals("IllegalStateException", span.error());
+        assertEquals("busy", span.tags().get("outcome"));
+        assertFalse(span.tags().containsKey(AuthSpans.LAYER_KEY));
+    }
+
+    @Test
+    void supportsContext_ShouldIgnoreObservation_WhenNotAnAuthSpan() {
+        Observation.createNotStarted("http.server.requests", observationRegistry).observe(() -> { });
+
+        assertTrue(exporter.spans().isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.mymicroservice.authservice.unit.util;
+
+import com.mymicroservice.authservice.util.BloomFilter;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldReturnTrue_WhenValueWasPut() {
+        BloomFilter filter = new BloomFilter(TestConstants.EMAIL_FILTER_EXPECTED_EMAILS,
+                TestConstants.EMAIL_FILTER_FALSE_POSITIVE_RATE);
+        IntStream.range(0, (int) TestConstants.EMAIL_FILTER_EXPECTED_EMAILS)
+                .forEach(i -> filter.put("user" + i + "@test.by"));
+
+        assertTrue(IntStream.range(0, (int) TestConstants.EMAIL_FILTER_EXPECTED_EMAILS)
+                .allMatch(i -> filter.mightContain("user" + i + "@test.by")));
+    }
+
+    @Test
+    void mightContain_ShouldStayNearFalsePositiveRate_WhenFilterIsFull() {
+        BloomFilter filter = new BloomFilter(TestConstants.EMAIL_FILTER_EXPECTED_EMAILS,
+                TestConstants.EMAIL_FILTER_FALSE_POSITIVE_RATE);
+        IntStream.range(0, (int) TestConstants.EMAIL_FILTER_EXPECTED_EMAILS)
+                .forEach(i -> filter.put("user" + i + "@test.by"));
+
+        int probes = 100_000;
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> filter.mightContain("unknown" + i + "@test.by"))
+                .count();
+
+        // 3x margin over the configured rate
+        assertTrue(falsePositives < probes * TestConstants.EMAIL_FILTER_FALSE_POSITIVE_RATE * 3,
+                "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_ShouldReturnFalse_WhenFilterIsEmpty() {
+        BloomFilter filter = new BloomFilter(TestConstants.EMAIL_FILTER_EXPECTED_EMAILS,
+                TestConstants.EMAIL_FILTER_FALSE_POSITIVE_RATE);
+
+        assertFalse(filter.mightContain(TestConstants.USER_EMAIL));
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenFalsePositiveRateOutOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BloomFilter(TestConstants.EMAIL_FILTER_EXPECTED_EMAILS, 1.0));
+    }
+}
@@ -0,0 +1,38 @@
+package com.mymicroservice.authservice.unit.util;
+
+import com.mymicroservice.authservice.util.TokenDigests;
+import com.mymicroservice.authservice.util.data.TestConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenDigestsTest {
+
+    @Test
+    void sha256Hex_ShouldReturn64HexChars_WhenTokenProvided() {
+        assertEquals(64, TokenDigests.sha256Hex(TestConstants.REFRESH_TOKEN_VALUE).length());
+    }
+
+    @Test
+    void fingerprint_ShouldBeDigestPrefix_WhenTokenProvided() {
+        String fingerprint = TokenDigests.fingerprint(TestConstants.REFRESH_TOKEN_VALUE);
+
+        assertEquals(16, fingerprint.length());
+        assertTrue(TokenDigests.sha256Hex(TestConstants.REFRESH_TOKEN_VALUE).startsWith(fingerprint));
+        assertFalse(TestConstants.REFRESH_TOKEN_VALUE.contains(fingerprint));
+    }
+
+    @Test
+    void fingerprint_ShouldDiffer_WhenTokensDiffer() {
+        assertNotEquals(TokenDigests.fingerprint(TestConstants.REFRESH_TOKEN_VALUE),
+                TokenDigests.fingerprint(TestConstants.INVALID_JWT_STRING));
+    }
+
+    @Test
+    void fingerprint_ShouldReturnNone_WhenTokenIsNull() {
+        assertEquals("none", TokenDigests.fingerprint(null));
+    }
+}
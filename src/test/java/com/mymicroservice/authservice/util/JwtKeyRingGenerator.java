@@ -0,0 +1,26 @@
+package com.mymicroservice.authservice.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymicroservice.authservice.security.JwtAlgorithm;
+import com.mymicroservice.authservice.security.JwtKeyRing;
+
+import java.util.List;
+
+import static com.mymicroservice.authservice.util.data.TestConstants.KEY_OVERLAP;
+import static com.mymicroservice.authservice.util.data.TestConstants.RSA_PRIVATE_KEY_LOCATION;
+import static com.mymicroservice.authservice.util.data.TestConstants.RSA_PUBLIC_KEY_LOCATION;
+
+public class JwtKeyRingGenerator {
+
+    public static JwtKeyRing generateKeyRing() {
+        return generateKeyRing(JwtAlgorithm.RS256, RSA_PRIVATE_KEY_LOCATION, RSA_PUBLIC_KEY_LOCATION, List.of());
+    }
+
+    public static JwtKeyRing generateKeyRing(JwtAlgorithm algorithm, String privateKeyLocation,
+                                             String publicKeyLocation, List<String> publishedKeyLocations) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, privateKeyLocation, publicKeyLocation,
+                publishedKeyLocations, KEY_OVERLAP, new ObjectMapper());
+        keyRing.init();
+        return keyRing;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mymicroservice.authservice.util;
+
+import com.mymicroservice.authservice.model.RefreshToken;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lookups used only by tests to check the stored sessions; the service itself never reads them this way.
+ */
+public interface RefreshTokenLookupRepository extends Repository<RefreshToken, Long> {
+
+    @Query("select r from RefreshToken r where lower(r.userEmail) = lower(:userEmail)")
+    List<RefreshToken> findAllByUserEmailIgnoreCase(@Param("userEmail") String userEmail);
+
+    Optional<RefreshToken> findBySessionId(UUID sessionId);
+}
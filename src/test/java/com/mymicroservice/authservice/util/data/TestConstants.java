@@ -2,9 +2,11 @@ package com.mymicroservice.authservice.util.data;
 
 import lombok.experimental.UtilityClass;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.UUID;
 
 @UtilityClass
 public class TestConstants {
@@ -31,6 +33,8 @@ public class TestConstants {
     public static final String INVALID_JWT_STRING = "invalid.token.string";
 
     public static final String ENCODED_PASSWORD = "encodedPassword";
+    public static final String UPGRADED_PASSWORD_HASH = "{bcrypt}upgradedPassword";
+    public static final int BCRYPT_TEST_STRENGTH = 4;
     public static final String MOCK_ACCESS_TOKEN = "accessToken";
     public static final String MOCK_REFRESH_TOKEN = "refreshToken";
 
@@ -40,8 +44,14 @@ public class TestConstants {
     public static final String INTERNAL_CALL_FALSE = "false";
 
     public static final String REFRESH_TOKEN_VALUE = "newRefreshToken";
-    public static final LocalDateTime REFRESH_TOKEN_EXPIRES_AT = LocalDateTime.of(2025, Month.AUGUST, 4, 22, 17, 37);
-    public static final LocalDateTime REFRESH_TOKEN_ISSUED_AT = LocalDateTime.of(2025, Month.AUGUST, 5, 22, 17, 37);
+    public static final Instant REFRESH_TOKEN_EXPIRES_AT = Instant.parse("2025-08-04T22:17:37.123456Z");
+    public static final Instant REFRESH_TOKEN_ISSUED_AT = Instant.parse("2025-08-05T22:17:37.123456Z");
+    public static final UUID SESSION_ID = UUID.fromString("3f0c6a52-8a47-4d8e-9a55-6b1f0f3c2d11");
+    public static final UUID OTHER_SESSION_ID = UUID.fromString("9b2e4d7c-1f3a-4c5b-8e6d-0a1b2c3d4e5f");
+    public static final String OPAQUE_REFRESH_TOKEN = "q3Jx0vN9cR2tYb8LwE5kHf7uZs1mPa4dGi6oTn0yVeU";
+    public static final int OPAQUE_REFRESH_TOKEN_LENGTH = 43;
+    public static final int PURGE_BATCH_SIZE = 2;
+    public static final int PURGE_MAX_BATCHES = 3;
 
     public static final String POSTGRES_IMAGE = "postgres:15-alpine";
     public static final String TEST_DB_NAME = "testdb";
@@ -49,5 +59,40 @@ public class TestConstants {
     public static final String TEST_DB_PASSWORD = "password";
 
     public static final String ROLE_USER = "USER";
+    public static final String UNKNOWN_ROLE = "MANAGER";
     public static final int RSA_KEY_SIZE = 2048;
+    public static final String RSA_PRIVATE_KEY_LOCATION = "keys/private.pem";
+    public static final String RSA_PUBLIC_KEY_LOCATION = "keys/public.pem";
+    public static final String ROTATED_PRIVATE_KEY_LOCATION = "keys/rotated-private.pem";
+    public static final String ROTATED_PUBLIC_KEY_LOCATION = "keys/rotated-public.pem";
+    public static final String ES256_PRIVATE_KEY_LOCATION = "keys/es256-private.pem";
+    public static final String ES256_PUBLIC_KEY_LOCATION = "keys/es256-public.pem";
+    public static final String ED25519_PRIVATE_KEY_LOCATION = "keys/ed25519-private.pem";
+    public static final String ED25519_PUBLIC_KEY_LOCATION = "keys/ed25519-public.pem";
+    public static final Duration KEY_OVERLAP = Duration.ofDays(1);
+    public static final String UNKNOWN_KEY_ID = "unknown-kid";
+    public static final String JWKS_KEY_ID = "test-kid";
+    public static final String JWKS_JSON = "{\"keys\":[{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"kid\":\"test-kid\",\"x\":\"11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo\"}]}";
+    public static final String JWKS_ETAG = "\"jwks-etag\"";
+
+    public static final long VALIDATION_CACHE_SIZE = 100;
+    public static final Duration REFRESH_GRACE_WINDOW = Duration.ofSeconds(10);
+    public static final long REFRESH_GRACE_CACHE_SIZE = 100;
+    public static final long REFRESH_TOKEN_VERSION = 0L;
+    public static final Duration CREDENTIAL_CACHE_TTL = Duration.ofMinutes(5);
+    public static final long CREDENTIAL_CACHE_SIZE = 100;
+    public static final long EMAIL_FILTER_EXPECTED_EMAILS = 1000;
+    public static final double EMAIL_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    public static final int RATE_LIMIT_CAPACITY = 3;
+    public static final Duration RATE_LIMIT_REFILL_PERIOD = Duration.ofMinutes(1);
+    public static final long RATE_LIMIT_MAX_KEYS = 100;
+    public static final int TRACING_MAX_SPANS = 100;
+    public static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    public static final String CLIENT_IP = "203.0.113.7";
+    public static final String OTHER_CLIENT_IP = "198.51.100.23";
+    public static final String GATEWAY_IP = "10.0.0.5";
+
+    public static final String V3_CHANGELOG = "db/changelog/v.3.0/db.changelog-v.3.0.xml";
+    public static final String USER_EMAIL_INDEX = "ux_user_credentials_email_lower";
+    public static final String REFRESH_TOKEN_EMAIL_INDEX = "ix_refresh_tokens_user_email_lower";
 }